@@ -5,22 +5,29 @@ import com.webscraper.app.dto.DetailedArticle;
 import com.webscraper.app.dto.ImageResult;
 import com.webscraper.app.dto.LinkItem;
 import com.webscraper.app.service.ExportService;
+import com.webscraper.app.service.ImageFetchService;
+import com.webscraper.app.service.LinkDiscoveryMode;
+import com.webscraper.app.service.LinkPrefetcher;
 import com.webscraper.app.service.SentimentAnalysis;
 import com.webscraper.app.service.WebScraperService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 
 import javax.swing.*;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
-import java.net.URL;
-import java.security.cert.X509Certificate;
+import java.io.UncheckedIOException;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static javax.swing.border.TitledBorder.LEFT;
 import static javax.swing.border.TitledBorder.TOP;
@@ -28,6 +35,8 @@ import static javax.swing.border.TitledBorder.TOP;
 @org.springframework.stereotype.Component
 class WebScraperGUI implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(WebScraperGUI.class);
+
     // UI Color Constants
     private static final Color PRIMARY_BLUE = new Color(52, 152, 219);
     private static final Color PRIMARY_GREEN = new Color(46, 204, 113);
@@ -58,6 +67,10 @@ class WebScraperGUI implements CommandLineRunner {
 
     // Tab 1: Link Scraper
     private JTextField urlField;
+    private JComboBox<LinkDiscoveryMode> discoveryModeBox;
+    private JSpinner maxLinksSpinner;
+    private JCheckBox prefetchBox;
+    private JCheckBox skipAnalyzedBox;
     private JList<LinkItem> linkList;
     private DefaultListModel<LinkItem> listModel;
     private JTextArea contentArea;
@@ -76,6 +89,9 @@ class WebScraperGUI implements CommandLineRunner {
 
     private WebScraperService scraperService;
     private ExportService exportService;
+    private ImageFetchService imageFetchService;
+    private SwingWorker<Void, ImageIcon> contentImageWorker;
+    private SwingWorker<Void, ImageResult> articleImageWorker;
     
     // Storage for current article and batch analysis
     private DetailedArticle currentArticle;
@@ -84,6 +100,7 @@ class WebScraperGUI implements CommandLineRunner {
     public WebScraperGUI() {
         this.scraperService = new WebScraperService();
         this.exportService = new ExportService();
+        this.imageFetchService = new ImageFetchService();
         this.batchArticles = new ArrayList<>();
     }
 
@@ -154,6 +171,7 @@ class WebScraperGUI implements CommandLineRunner {
         
         urlField = new JTextField("https://www.bbc.com/");
         urlField.setFont(FONT_TEXT);
+        urlField.setToolTipText("One or more URLs, separated by spaces or commas");
         urlField.setBorder(BorderFactory.createCompoundBorder(
             BorderFactory.createLineBorder(BORDER_COLOR, 1),
             BorderFactory.createEmptyBorder(8, 10, 8, 10)
@@ -173,10 +191,37 @@ class WebScraperGUI implements CommandLineRunner {
         ));
         scrapeButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
 
+        discoveryModeBox = new JComboBox<>(LinkDiscoveryMode.values());
+        discoveryModeBox.setFont(FONT_SMALL);
+        discoveryModeBox.setToolTipText("Streaming stops downloading once enough links are found");
+
+        maxLinksSpinner = new JSpinner(new SpinnerNumberModel(WebScraperService.DEFAULT_MAX_LINKS, 1, 500, 5));
+        maxLinksSpinner.setFont(FONT_SMALL);
+        maxLinksSpinner.setToolTipText("Maximum number of links to find");
+
+        prefetchBox = new JCheckBox("Prefetch top " + LinkPrefetcher.DEFAULT_PREFETCH_COUNT, true);
+        prefetchBox.setFont(FONT_SMALL);
+        prefetchBox.setBackground(BACKGROUND_LIGHT);
+        prefetchBox.setToolTipText("Load the first articles in the background so opening them is instant");
+
+        skipAnalyzedBox = new JCheckBox("New only", false);
+        skipAnalyzedBox.setFont(FONT_SMALL);
+        skipAnalyzedBox.setBackground(BACKGROUND_LIGHT);
+        skipAnalyzedBox.setToolTipText("Hide articles already analyzed in this or earlier sessions");
+        skipAnalyzedBox.setEnabled(scraperService.getSeenUrlStore() != null);
+
+        JPanel optionsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        optionsPanel.setBackground(BACKGROUND_LIGHT);
+        optionsPanel.add(discoveryModeBox);
+        optionsPanel.add(maxLinksSpinner);
+        optionsPanel.add(prefetchBox);
+        optionsPanel.add(skipAnalyzedBox);
+
         JPanel inputPanel = new JPanel(new BorderLayout(10, 0));
         inputPanel.setBackground(BACKGROUND_LIGHT);
         inputPanel.add(urlLabel, BorderLayout.WEST);
         inputPanel.add(urlField, BorderLayout.CENTER);
+        inputPanel.add(optionsPanel, BorderLayout.EAST);
         
         topPanel.add(inputPanel, BorderLayout.CENTER);
         topPanel.add(scrapeButton, BorderLayout.EAST);
@@ -541,7 +586,7 @@ class WebScraperGUI implements CommandLineRunner {
     }
 
     private class ScrapeButtonListener implements ActionListener {
-        private SwingWorker<List<LinkItem>, String> currentWorker;
+        private SwingWorker<List<LinkItem>, LinkItem> currentWorker;
 
         @Override
         public void actionPerformed(ActionEvent e) {
@@ -550,6 +595,12 @@ class WebScraperGUI implements CommandLineRunner {
                 JOptionPane.showMessageDialog(frame, "Please enter a valid URL", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
+            // Several URLs separated by spaces or commas are scraped together and merged
+            List<String> seeds = List.of(url.split("[\\s,]+"));
+            LinkDiscoveryMode mode = (LinkDiscoveryMode) discoveryModeBox.getSelectedItem();
+            int maxLinks = (Integer) maxLinksSpinner.getValue();
+            boolean skipAnalyzed = skipAnalyzedBox.isSelected();
+            scraperService.cancelPrefetch();
 
             // Cancel previous operation if running
             if (currentWorker != null && !currentWorker.isDone()) {
@@ -564,7 +615,7 @@ class WebScraperGUI implements CommandLineRunner {
             imagesContainer.repaint();
 
             // Show loading message
-            contentArea.setText("Connecting to " + url +
+            contentArea.setText("Connecting to " + (seeds.size() > 1 ? seeds.size() + " sites" : url) +
                     "...\nSearching for latest news articles and stories...\nThis may take a few seconds.");
 
             // Disable button during operation with better feedback
@@ -573,21 +624,37 @@ class WebScraperGUI implements CommandLineRunner {
             button.setText("⏳ Loading...");
             button.setBackground(BUTTON_DISABLED);
 
-            // Run scraping in background thread
+            // Run scraping in background thread; links are listed as soon as they are found
             currentWorker = new SwingWorker<>() {
                 @Override
                 protected List<LinkItem> doInBackground() throws Exception {
-                    publish("Connecting to website...");
-                    List<LinkItem> links = scraperService.extractLinks(url);
-                    publish("Processing " + links.size() + " links...");
+                    if (seeds.size() > 1) {
+                        // Ranking needs every seed's links, so the merged list arrives at once
+                        return scraperService.extractLinks(seeds, mode, maxLinks, skipAnalyzed);
+                    }
+                    List<LinkItem> links = new ArrayList<>();
+                    try (Stream<LinkItem> found = scraperService.streamLinks(url, mode, maxLinks, skipAnalyzed)) {
+                        Iterator<LinkItem> iterator = found.iterator();
+                        while (!isCancelled() && iterator.hasNext()) {
+                            LinkItem link = iterator.next();
+                            links.add(link);
+                            publish(link);
+                        }
+                    } catch (UncheckedIOException e) {
+                        throw e.getCause();
+                    }
                     return links;
                 }
 
                 @Override
-                protected void process(List<String> chunks) {
-                    for (String message : chunks) {
-                        contentArea.setText(message);
+                protected void process(List<LinkItem> chunks) {
+                    if (isDone()) {
+                        return; // done() lists whatever is left
                     }
+                    for (LinkItem link : chunks) {
+                        listModel.addElement(link);
+                    }
+                    contentArea.setText("Found " + listModel.size() + " links so far...");
                 }
 
                 @Override
@@ -611,8 +678,11 @@ class WebScraperGUI implements CommandLineRunner {
                                     "• https://www.cnn.com/\n" +
                                     "• https://www.reuters.com/");
                         } else {
-                            for (LinkItem link : links) {
-                                listModel.addElement(link);
+                            for (int i = listModel.size(); i < links.size(); i++) {
+                                listModel.addElement(links.get(i));
+                            }
+                            if (prefetchBox.isSelected()) {
+                                scraperService.prefetchLinks(links, LinkPrefetcher.DEFAULT_PREFETCH_COUNT);
                             }
                             contentArea.setText("✅ Successfully found " + links.size() + " news articles!\n\n" +
                                     "Select any article from the list to view its content and images.");
@@ -621,8 +691,7 @@ class WebScraperGUI implements CommandLineRunner {
                         String errorMsg = "❌ Error loading links:\n\n" + ex.getMessage() + 
                                 "\n\nPlease check your internet connection and try again.";
                         contentArea.setText(errorMsg);
-                        System.err.println("Scraping error: " + ex.getMessage());
-                        ex.printStackTrace();
+                        log.error("Scraping error", ex);
                     }
                 }
             };
@@ -704,8 +773,7 @@ class WebScraperGUI implements CommandLineRunner {
                         authorLabel.setText("<html><b>Author:</b> Analysis failed</html>");
                         dateLabel.setText("<html><b>Published:</b> Analysis failed</html>");
                         sentimentLabel.setText("<html><b>Sentiment:</b> Analysis failed</html>");
-                        System.err.println("Article analysis error: " + ex.getMessage());
-                        ex.printStackTrace();
+                        log.error("Article analysis error", ex);
                     }
                 }
             };
@@ -798,6 +866,9 @@ class WebScraperGUI implements CommandLineRunner {
     }
 
     private void displayArticleImages(List<String> imageUrls) {
+        if (articleImageWorker != null && !articleImageWorker.isDone()) {
+            articleImageWorker.cancel(true);
+        }
         articleImagesContainer.removeAll();
 
         if (imageUrls.isEmpty()) {
@@ -817,27 +888,16 @@ class WebScraperGUI implements CommandLineRunner {
             SwingWorker<Void, ImageResult> imageWorker = new SwingWorker<Void, ImageResult>() {
                 @Override
                 protected Void doInBackground() throws Exception {
-                    for (String imageUrl : imageUrls) {
-                        if (isCancelled()) break;
-
-                        try {
-                            ImageIcon icon = loadImageIcon(imageUrl);
-                            if (icon != null) {
-                                publish(new ImageResult(icon, imageUrl, true));
-                            } else {
-                                publish(new ImageResult(null, imageUrl, false));
-                            }
-                        } catch (Exception e) {
-                            publish(new ImageResult(null, imageUrl, false));
-                        }
-
-                        Thread.sleep(300); // Small delay between images
-                    }
+                    // Images load in parallel but arrive in article order
+                    imageFetchService.loadImages(imageUrls, result -> publish(result));
                     return null;
                 }
 
                 @Override
                 protected void process(List<ImageResult> chunks) {
+                    if (isCancelled()) {
+                        return; // A newer page replaced this gallery
+                    }
                     // Remove loading label on first image
                     if (articleImagesContainer.getComponentCount() > 0 &&
                             articleImagesContainer.getComponent(0) == loadingLabel) {
@@ -867,6 +927,9 @@ class WebScraperGUI implements CommandLineRunner {
 
                 @Override
                 protected void done() {
+                    if (isCancelled()) {
+                        return;
+                    }
                     if (articleImagesContainer.getComponentCount() == 0) {
                         JLabel noImagesLabel = new JLabel("📷 Could not load any images from this article.");
                         noImagesLabel.setForeground(TEXT_SECONDARY);
@@ -878,6 +941,7 @@ class WebScraperGUI implements CommandLineRunner {
                     articleImagesContainer.repaint();
                 }
             };
+            articleImageWorker = imageWorker;
             imageWorker.execute();
         }
 
@@ -897,6 +961,8 @@ class WebScraperGUI implements CommandLineRunner {
                 if (currentContentWorker != null && !currentContentWorker.isDone()) {
                     currentContentWorker.cancel(true);
                 }
+                // Free the host for this page; a prefetch already loading it is joined, not restarted
+                scraperService.cancelPrefetchExcept(selectedLink.getUrl());
 
                 contentArea.setText("Loading content from: " + selectedLink.getTitle() + "...");
                 imagesContainer.removeAll();
@@ -930,7 +996,7 @@ class WebScraperGUI implements CommandLineRunner {
                             displayContent(content);
                         } catch (Exception ex) {
                             contentArea.setText("Error loading content from " + selectedLink.getTitle() + ": " + ex.getMessage());
-                            System.err.println("Content loading error: " + ex.getMessage());
+                            log.warn("Content loading error: {}", ex.getMessage());
                         }
                     }
                 };
@@ -950,6 +1016,9 @@ class WebScraperGUI implements CommandLineRunner {
         contentArea.setCaretPosition(0);
 
         // Display images asynchronously
+        if (contentImageWorker != null && !contentImageWorker.isDone()) {
+            contentImageWorker.cancel(true);
+        }
         imagesContainer.removeAll();
 
         if (content.getImageUrls().isEmpty()) {
@@ -969,23 +1038,19 @@ class WebScraperGUI implements CommandLineRunner {
             SwingWorker<Void, ImageIcon> imageWorker = new SwingWorker<Void, ImageIcon>() {
                 @Override
                 protected Void doInBackground() throws Exception {
-                    for (String imageUrl : content.getImageUrls()) {
-                        if (isCancelled()) break;
-
-                        try {
-                            ImageIcon icon = loadImageIcon(imageUrl);
-                            if (icon != null) {
-                                publish(icon);
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Failed to load image: " + imageUrl + " - " + e.getMessage());
+                    imageFetchService.loadImages(content.getImageUrls(), result -> {
+                        if (result.isSuccess()) {
+                            publish(result.getIcon());
                         }
-                    }
+                    });
                     return null;
                 }
 
                 @Override
                 protected void process(List<ImageIcon> chunks) {
+                    if (isCancelled()) {
+                        return; // A newer page replaced this gallery
+                    }
                     // Remove loading label on first image
                     if (imagesContainer.getComponentCount() > 0 &&
                             imagesContainer.getComponent(0) == loadingLabel) {
@@ -1013,6 +1078,9 @@ class WebScraperGUI implements CommandLineRunner {
 
                 @Override
                 protected void done() {
+                    if (isCancelled()) {
+                        return;
+                    }
                     // Remove loading label if it's still there
                     for (int i = 0; i < imagesContainer.getComponentCount(); i++) {
                         if (imagesContainer.getComponent(i) == loadingLabel) {
@@ -1033,6 +1101,7 @@ class WebScraperGUI implements CommandLineRunner {
                     imagesContainer.repaint();
                 }
             };
+            contentImageWorker = imageWorker;
             imageWorker.execute();
         }
 
@@ -1040,108 +1109,6 @@ class WebScraperGUI implements CommandLineRunner {
         imagesContainer.repaint();
     }
 
-    private ImageIcon loadImageIcon(String imageUrl) {
-        try {
-            System.out.println("Loading image: " + imageUrl);
-            URL url = new URL(imageUrl);
-
-            // Create connection with proper headers and timeouts
-            java.net.HttpURLConnection connection = (java.net.HttpURLConnection) url.openConnection();
-            connection.setConnectTimeout(5000); // 5 seconds
-            connection.setReadTimeout(8000); // 8 seconds
-            connection.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-            connection.setRequestProperty("Accept", "image/webp,image/apng,image/svg+xml,image/*,*/*;q=0.8");
-            connection.setRequestProperty("Accept-Language", "en-US,en;q=0.9");
-            connection.setRequestProperty("Referer", imageUrl.substring(0, imageUrl.indexOf('/', 8))); // Use domain as referer
-            connection.setInstanceFollowRedirects(true);
-
-            // Handle HTTPS certificates more leniently
-            if (connection instanceof javax.net.ssl.HttpsURLConnection) {
-                javax.net.ssl.HttpsURLConnection httpsConnection = (javax.net.ssl.HttpsURLConnection) connection;
-
-                // Create a trust manager that accepts all certificates (for scraping purposes)
-                javax.net.ssl.TrustManager[] trustAllCerts = new javax.net.ssl.TrustManager[] {
-                        new javax.net.ssl.X509TrustManager() {
-                            public X509Certificate[] getAcceptedIssuers() { return null; }
-                            public void checkClientTrusted(java.security.cert.X509Certificate[] certs, String authType) {}
-                            public void checkServerTrusted(java.security.cert.X509Certificate[] certs, String authType) {}
-                        }
-                };
-
-                try {
-                    javax.net.ssl.SSLContext sc = javax.net.ssl.SSLContext.getInstance("SSL");
-                    sc.init(null, trustAllCerts, new java.security.SecureRandom());
-                    httpsConnection.setSSLSocketFactory(sc.getSocketFactory());
-                    httpsConnection.setHostnameVerifier((hostname, session) -> true);
-                } catch (Exception e) {
-                    System.err.println("SSL setup failed for " + imageUrl + ": " + e.getMessage());
-                }
-            }
-
-            // Check response code
-            int responseCode = connection.getResponseCode();
-            if (responseCode != 200) {
-                System.err.println("HTTP " + responseCode + " for image: " + imageUrl);
-                return null;
-            }
-
-            // Get content type
-            String contentType = connection.getContentType();
-            if (contentType != null && !contentType.toLowerCase().startsWith("image/")) {
-                System.err.println("Invalid content type for " + imageUrl + ": " + contentType);
-                return null;
-            }
-
-            // Read image using ImageIO
-            Image image = ImageIO.read(connection.getInputStream());
-            connection.disconnect();
-
-            if (image != null && image.getWidth(null) > 0 && image.getHeight(null) > 0) {
-                // Scale image to fit - make them smaller for better performance
-                int maxWidth = 300;
-                int maxHeight = 200;
-
-                int originalWidth = image.getWidth(null);
-                int originalHeight = image.getHeight(null);
-
-                // Skip very small images (likely icons or ads)
-                if (originalWidth < 100 || originalHeight < 100) {
-                    System.out.println("Skipping small image: " + originalWidth + "x" + originalHeight);
-                    return null;
-                }
-
-                // Calculate scaling
-                double scaleX = (double) maxWidth / originalWidth;
-                double scaleY = (double) maxHeight / originalHeight;
-                double scale = Math.min(scaleX, scaleY);
-
-                if (scale < 1.0) {
-                    int scaledWidth = (int) (originalWidth * scale);
-                    int scaledHeight = (int) (originalHeight * scale);
-                    Image scaledImage = image.getScaledInstance(scaledWidth, scaledHeight, Image.SCALE_SMOOTH);
-                    System.out.println("Loaded and scaled image: " + imageUrl + " (" + scaledWidth + "x" + scaledHeight + ")");
-                    return new ImageIcon(scaledImage);
-                } else {
-                    System.out.println("Loaded image: " + imageUrl + " (" + originalWidth + "x" + originalHeight + ")");
-                    return new ImageIcon(image);
-                }
-            } else {
-                System.err.println("Failed to decode image: " + imageUrl);
-            }
-        } catch (java.net.SocketTimeoutException e) {
-            System.err.println("Timeout loading image: " + imageUrl);
-        } catch (java.net.UnknownHostException e) {
-            System.err.println("Unknown host for image: " + imageUrl);
-        } catch (javax.net.ssl.SSLException e) {
-            System.err.println("SSL error loading image: " + imageUrl + " - " + e.getMessage());
-        } catch (java.io.IOException e) {
-            System.err.println("IO error loading image: " + imageUrl + " - " + e.getMessage());
-        } catch (Exception e) {
-            System.err.println("Error loading image: " + imageUrl + " - " + e.getMessage());
-        }
-        return null;
-    }
-
     // Export and Batch Analysis Methods
     
     private void exportCurrentArticleToCSV() {
@@ -1171,7 +1138,7 @@ class WebScraperGUI implements CommandLineRunner {
                     "Error exporting article:\n" + ex.getMessage(),
                     "Export Error",
                     JOptionPane.ERROR_MESSAGE);
-                ex.printStackTrace();
+                log.error("Article export failed", ex);
             }
         }
     }
@@ -1203,7 +1170,7 @@ class WebScraperGUI implements CommandLineRunner {
                     "Error exporting article:\n" + ex.getMessage(),
                     "Export Error",
                     JOptionPane.ERROR_MESSAGE);
-                ex.printStackTrace();
+                log.error("Article export failed", ex);
             }
         }
     }
@@ -1284,7 +1251,7 @@ class WebScraperGUI implements CommandLineRunner {
                         "Error exporting batch:\n" + ex.getMessage(),
                         "Export Error",
                         JOptionPane.ERROR_MESSAGE);
-                    ex.printStackTrace();
+                    log.error("Batch export failed", ex);
                 }
             }
         } else { // PDF
@@ -1303,7 +1270,7 @@ class WebScraperGUI implements CommandLineRunner {
                         "Error exporting batch:\n" + ex.getMessage(),
                         "Export Error",
                         JOptionPane.ERROR_MESSAGE);
-                    ex.printStackTrace();
+                    log.error("Batch export failed", ex);
                 }
             }
         }
@@ -1337,6 +1304,9 @@ class WebScraperGUI implements CommandLineRunner {
 
 // Custom cell renderer for links with professional styling
 class LinkCellRenderer extends DefaultListCellRenderer {
+    private static final DateTimeFormatter PUBLISHED_FORMAT =
+            DateTimeFormatter.ofPattern("MMM d, HH:mm").withZone(ZoneId.systemDefault());
+
     @Override
     public Component getListCellRendererComponent(JList<?> list, Object value, int index,
                                                   boolean isSelected, boolean cellHasFocus) {
@@ -1346,8 +1316,10 @@ class LinkCellRenderer extends DefaultListCellRenderer {
             LinkItem link = (LinkItem) value;
             
             // Create multi-line display with title and subtle index
+            String date = link.getPublishedAt() == null ? "" :
+                    " <span style='color: #95a5a6;'>" + PUBLISHED_FORMAT.format(link.getPublishedAt()) + "</span>";
             String displayText = "<html><div style='padding: 5px;'>" +
-                    "<b>" + (index + 1) + ".</b> " + link.getTitle() + 
+                    "<b>" + (index + 1) + ".</b> " + link.getTitle() + date +
                     "</div></html>";
             setText(displayText);
             setToolTipText("<html><b>Click to view:</b><br/>" + link.getUrl() + "</html>");
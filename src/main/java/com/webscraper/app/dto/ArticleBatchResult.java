@@ -0,0 +1,23 @@
+package com.webscraper.app.dto;
+
+import java.util.Map;
+
+public class ArticleBatchResult {
+    private final Map<String, DetailedArticle> articles;
+    private final Map<String, String> failures;
+
+    public ArticleBatchResult(Map<String, DetailedArticle> articles, Map<String, String> failures) {
+        this.articles = articles;
+        this.failures = failures;
+    }
+
+    /** Successfully analyzed articles keyed by URL, in completion order */
+    public Map<String, DetailedArticle> getArticles() {
+        return articles;
+    }
+
+    /** Error message per URL that could not be analyzed */
+    public Map<String, String> getFailures() {
+        return failures;
+    }
+}
@@ -2,12 +2,14 @@ package com.webscraper.app.dto;
 
 import com.webscraper.app.service.SentimentAnalysis;
 
+import java.time.Instant;
 import java.util.List;
 
 public class DetailedArticle {
     private final String headline;
     private final String author;
     private final String publishDate;
+    private final Instant publishedAt;
     private final String content;
     private final List<String> imageUrls;
     private final SentimentAnalysis sentiment;
@@ -15,9 +17,15 @@ public class DetailedArticle {
 
     public DetailedArticle(String headline, String author, String publishDate, String content,
                            List<String> imageUrls, SentimentAnalysis sentiment, int wordCount) {
+        this(headline, author, publishDate, null, content, imageUrls, sentiment, wordCount);
+    }
+
+    public DetailedArticle(String headline, String author, String publishDate, Instant publishedAt, String content,
+                           List<String> imageUrls, SentimentAnalysis sentiment, int wordCount) {
         this.headline = headline;
         this.author = author;
         this.publishDate = publishDate;
+        this.publishedAt = publishedAt;
         this.content = content;
         this.imageUrls = imageUrls;
         this.sentiment = sentiment;
@@ -27,6 +35,8 @@ public class DetailedArticle {
     public String getHeadline() { return headline; }
     public String getAuthor() { return author; }
     public String getPublishDate() { return publishDate; }
+    /** The publish date as an instant, or null if the page gave none that could be read */
+    public Instant getPublishedAt() { return publishedAt; }
     public String getContent() { return content; }
     public List<String> getImageUrls() { return imageUrls; }
     public SentimentAnalysis getSentiment() { return sentiment; }
@@ -1,12 +1,20 @@
 package com.webscraper.app.dto;
 
+import java.time.Instant;
+
 public class LinkItem {
     private final String title;
     private final String url;
+    private final Instant publishedAt;
 
     public LinkItem(String title, String url) {
+        this(title, url, null);
+    }
+
+    public LinkItem(String title, String url, Instant publishedAt) {
         this.title = title;
         this.url = url;
+        this.publishedAt = publishedAt;
     }
 
     public String getTitle() {
@@ -17,6 +25,11 @@ public class LinkItem {
         return url;
     }
 
+    /** Publish or last-modified time when the source provides one (sitemaps, feeds), else null */
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
     @Override
     public String toString() {
         return title;
@@ -0,0 +1,17 @@
+package com.webscraper.app.service;
+
+import com.webscraper.app.dto.DetailedArticle;
+
+import java.io.IOException;
+
+/**
+ * Receives batch results as each article finishes. Callbacks run on the worker
+ * threads, so GUI code must hop back to the event dispatch thread itself.
+ */
+public interface ArticleBatchListener {
+
+    void onArticle(String url, DetailedArticle article);
+
+    default void onFailure(String url, IOException error) {
+    }
+}
@@ -0,0 +1,525 @@
+package com.webscraper.app.service;
+
+import com.webscraper.app.service.ExtractionProfileCache.Field;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+import org.jsoup.select.QueryParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fills in a detailed article's headline, author, date, body and images. The page's
+ * structured data is read first ({@link StructuredDataExtractor}); whatever it leaves
+ * missing is found in a single walk of the page. The selectors of the extraction
+ * cascades are compiled once: plain class and tag selectors into lookup tables, the
+ * rest into jsoup {@link Evaluator}s. The walk matches each element against the
+ * selectors still in play while the {@link ReadabilityExtractor} scores the same
+ * elements. A selector drops out as soon as it can no longer change a cascade's
+ * answer: a single-valued field is settled by its first match with text, and selectors
+ * ranked below the remembered or best match so far are skipped. The cascades are then
+ * resolved through the {@link ExtractionProfileCache} from what the walk recorded, so
+ * learning works as it does with one {@code select} per selector.
+ */
+public class ArticleFieldExtractor {
+
+    private static final int MIN_STRUCTURED_BODY_CHARS = 500;
+
+    // Selector cascades, tried in order until one matches; see ExtractionProfileCache
+    static final String[] HEADLINE_SELECTORS = {
+            "h1", ".headline", ".title", ".article-title", ".story-title",
+            ".post-title", ".entry-title", ".main-title", "[itemprop=headline]",
+            "meta[property='og:title']", "meta[name='twitter:title']"
+    };
+    static final String[] AUTHOR_SELECTORS = {
+            ".author", ".byline", ".writer", ".journalist", "[itemprop=author]",
+            ".article-author", ".post-author", ".story-author", ".by-author",
+            "meta[name='author']", "meta[property='article:author']"
+    };
+    static final String[] DATE_SELECTORS = {
+            ".date", ".publish-date", ".published", ".timestamp", ".article-date",
+            ".post-date", ".story-date", "[itemprop=datePublished]", "[datetime]",
+            "meta[property='article:published_time']", "meta[name='publish_date']",
+            "time"
+    };
+    static final String[] CONTENT_SELECTORS = {
+            ".article-content", ".article-body", ".story-content", ".post-content",
+            ".entry-content", ".content", "article", ".main-content", "[itemprop=articleBody]",
+            ".text", ".body", ".article-text", ".story-text"
+    };
+    static final String[] IMAGE_SELECTORS = {
+            ".article-content img[src]", ".article-body img[src]", ".story-content img[src]",
+            ".post-content img[src]", ".entry-content img[src]", "article img[src]",
+            ".content img[src]", ".main-content img[src]", ".text img[src]"
+    };
+
+    // Image selectors look inside a container, so the walk keeps the images and matches them afterwards
+    private static final Cascade HEADLINE = new Cascade(Field.HEADLINE, false, HEADLINE_SELECTORS, null);
+    private static final Cascade AUTHOR = new Cascade(Field.AUTHOR, false, AUTHOR_SELECTORS, null);
+    private static final Cascade DATE = new Cascade(Field.DATE, false, DATE_SELECTORS, null);
+    private static final Cascade CONTENT = new Cascade(Field.CONTENT, true, CONTENT_SELECTORS, "p");
+    private static final Cascade IMAGES = new Cascade(Field.IMAGES, true, IMAGE_SELECTORS, "img[src]");
+    private static final Cascade[] CASCADES = {HEADLINE, AUTHOR, DATE, CONTENT, IMAGES};
+
+    // Every selector of every cascade, numbered so the walk can track them in one long
+    private static final Selector[] SELECTORS = compile();
+    private static final long WALKED = mask(selector -> selector.cascade.walked);
+    // Plain class and tag selectors are looked up by name; the rest run their Evaluator
+    private static final Map<String, Long> BY_CLASS = index(selector -> selector.className);
+    private static final Map<String, Long> BY_TAG = index(selector -> selector.tagName);
+    private static final long EVALUATED = WALKED & mask(selector -> selector.className == null && selector.tagName == null);
+    // Evaluated selectors that can only match an element with attributes
+    private static final long NEEDS_ATTRIBUTES = EVALUATED & mask(selector -> selector.query.contains("["));
+    // Tags of the elements the walk keeps for the image cascade
+    private static final Set<String> KEPT_TAGS = keptTags();
+
+    private final ExtractionProfileCache profiles;
+    private final UrlClassifier urlClassifier;
+    private final ReadabilityExtractor readability;
+    private final StructuredDataExtractor structuredData = new StructuredDataExtractor();
+
+    public ArticleFieldExtractor(ExtractionProfileCache profiles, UrlClassifier urlClassifier) {
+        this(profiles, urlClassifier, null);
+    }
+
+    /** @param boilerplate drops blocks the page's site repeats on every page; null to keep them */
+    public ArticleFieldExtractor(ExtractionProfileCache profiles, UrlClassifier urlClassifier,
+                                 BoilerplateFilter boilerplate) {
+        this.profiles = profiles;
+        this.urlClassifier = urlClassifier;
+        this.readability = new ReadabilityExtractor(urlClassifier, boilerplate);
+    }
+
+    /** The fields of one article page */
+    public static final class Fields {
+        private final String headline;
+        private final String author;
+        private final String publishDate;
+        private final String content;
+        private final List<String> imageUrls;
+
+        Fields(String headline, String author, String publishDate, String content, List<String> imageUrls) {
+            this.headline = headline;
+            this.author = author;
+            this.publishDate = publishDate;
+            this.content = content;
+            this.imageUrls = imageUrls;
+        }
+
+        public String getHeadline() { return headline; }
+        public String getAuthor() { return author; }
+        public String getPublishDate() { return publishDate; }
+        public String getContent() { return content; }
+        public List<String> getImageUrls() { return imageUrls; }
+    }
+
+    /**
+     * Extract the article fields from doc. Structured data is trusted first. The body,
+     * its images and the byline otherwise come from content scoring, and the selector
+     * cascades fill in whatever is still missing. A page whose head names every field
+     * and carries the full body is not walked at all.
+     */
+    public Fields extract(Document doc, String host, int maxImages) {
+        StructuredDataExtractor.Metadata known = new StructuredDataExtractor.Metadata();
+        StructuredDataExtractor.Metadata meta = structuredData.readHead(doc, known);
+        boolean needsBody = !isFullBody(known.getBody());
+        long skipped = (known.getHeadline() != null || meta.getHeadline() != null ? HEADLINE.bits() : 0)
+                | (known.getAuthor() != null || meta.getAuthor() != null ? AUTHOR.bits() : 0)
+                | (known.getDatePublished() != null || meta.getDatePublished() != null ? DATE.bits() : 0)
+                | (needsBody ? 0 : CONTENT.bits());
+        Walk walk = new Walk(doc, host, skipped);
+        ReadabilityExtractor.Result scored = null;
+        if (needsBody) {
+            scored = readability.extract(doc, maxImages, walk);
+        } else if (walk.live != 0) {
+            NodeTraversor.traverse(walk, doc);
+        }
+        for (Element script : walk.scripts) {
+            structuredData.readJsonLd(script, doc.location(), known); // Blocks in the body, found on the walk
+        }
+        known.fillFrom(meta); // Meta tags only fill in what no JSON-LD named
+
+        String headline = known.getHeadline() != null ? known.getHeadline() : walk.resolve(HEADLINE);
+        if (headline == null) {
+            headline = doc.title(); // Fallback to document title
+        }
+        headline = headline.isEmpty() ? "No headline found" : headline.trim();
+
+        String author = known.getAuthor() != null ? known.getAuthor()
+                : scored != null && scored.getByline() != null ? scored.getByline() : walk.resolve(AUTHOR);
+        author = author == null ? "Unknown Author" : author.trim();
+
+        String date = known.getDatePublished() != null ? known.getDatePublished() : walk.resolve(DATE);
+        date = date == null ? "Unknown Date" : date.trim();
+
+        String content;
+        if (isFullBody(known.getBody())) {
+            content = known.getBody();
+        } else {
+            content = scored.isEmpty() ? content(walk.resolve(CONTENT)) : scored.getText();
+        }
+
+        // The lead image the publisher chose, then the images in the body
+        List<String> imageUrls = new ArrayList<>(known.getImageUrls());
+        if (scored != null) {
+            for (String url : scored.getImageUrls()) {
+                if (!imageUrls.contains(url)) {
+                    imageUrls.add(url);
+                }
+            }
+        }
+        if (imageUrls.isEmpty()) {
+            imageUrls = images(walk.resolve(IMAGES), maxImages);
+        }
+        return new Fields(headline, author, date, content,
+                imageUrls.size() > maxImages ? imageUrls.subList(0, maxImages) : imageUrls);
+    }
+
+    // A teaser or description is no substitute for scoring the page
+    private static boolean isFullBody(String body) {
+        return body != null && body.length() >= MIN_STRUCTURED_BODY_CHARS;
+    }
+
+    private static String content(Elements contentElements) {
+        StringBuilder contentBuilder = new StringBuilder();
+        for (Element element : contentElements) {
+            String text = element.text().trim();
+            if (!text.isEmpty() && text.length() > 30) {
+                contentBuilder.append(text).append("\n\n");
+            }
+        }
+        String content = contentBuilder.toString().trim();
+        return content.isEmpty() ? "No content could be extracted from this article." : content;
+    }
+
+    private List<String> images(Elements images, int maxImages) {
+        List<String> imageUrls = new ArrayList<>();
+        for (Element img : images) {
+            String src = img.attr("abs:src");
+            String parentClass = img.parent() != null ? img.parent().attr("class") : "";
+            if (!src.isEmpty() && urlClassifier.isContentImageUrl(src)
+                    && urlClassifier.isNewsImage(img.attr("alt"), img.attr("class"), parentClass)) {
+                imageUrls.add(src);
+                if (imageUrls.size() >= maxImages) break;
+            }
+        }
+        return imageUrls;
+    }
+
+    // What a single-valued field's selector yields for the element it matched, or null
+    private static String valueOf(Field field, String selector, Element element) {
+        if (selector.startsWith("meta")) {
+            String content = element.attr("content");
+            return content.isEmpty() ? null : content;
+        }
+        String text;
+        if (field == Field.AUTHOR) {
+            text = ReadabilityExtractor.cleanByline(element.text());
+        } else if (field == Field.DATE && element.hasAttr("datetime")) {
+            text = element.attr("datetime");
+        } else {
+            text = element.text();
+        }
+        return text.isEmpty() ? null : text;
+    }
+
+    private static Selector[] compile() {
+        List<Selector> selectors = new ArrayList<>();
+        for (Cascade cascade : CASCADES) {
+            cascade.first = selectors.size();
+            for (int i = 0; i < cascade.selectors.length; i++) {
+                selectors.add(new Selector(cascade, i, cascade.selectors[i]));
+            }
+            if (cascade.fallback != null) {
+                selectors.add(new Selector(cascade, cascade.selectors.length, cascade.fallback));
+            }
+            cascade.end = selectors.size();
+            cascade.walked = selectors.subList(cascade.first, cascade.end).stream().allMatch(s -> s.scope == null);
+        }
+        if (selectors.size() > Long.SIZE) {
+            throw new IllegalStateException("The walk tracks at most 64 selectors, got " + selectors.size());
+        }
+        return selectors.toArray(new Selector[0]);
+    }
+
+    private static long mask(Predicate<Selector> test) {
+        long mask = 0;
+        for (int i = 0; i < SELECTORS.length; i++) {
+            if (test.test(SELECTORS[i])) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    private static Map<String, Long> index(Function<Selector, String> name) {
+        Map<String, Long> index = new HashMap<>();
+        for (int i = 0; i < SELECTORS.length; i++) {
+            if (SELECTORS[i].cascade.walked && name.apply(SELECTORS[i]) != null) {
+                index.merge(name.apply(SELECTORS[i]), 1L << i, (a, b) -> a | b);
+            }
+        }
+        return index;
+    }
+
+    private static Set<String> keptTags() {
+        Set<String> tags = new HashSet<>();
+        for (Selector selector : SELECTORS) {
+            if (!selector.cascade.walked) {
+                if (selector.subjectTag == null) {
+                    throw new IllegalStateException("Descendant selector needs a tag to match: " + selector.query);
+                }
+                tags.add(selector.subjectTag);
+            }
+        }
+        return tags;
+    }
+
+    // Bits of the class selectors naming any of the element's classes
+    private static long classBits(String classes) {
+        long bits = 0;
+        int length = classes.length();
+        for (int start = 0; start < length; ) {
+            while (start < length && Character.isWhitespace(classes.charAt(start))) {
+                start++;
+            }
+            int end = start;
+            while (end < length && !Character.isWhitespace(classes.charAt(end))) {
+                end++;
+            }
+            if (end > start) {
+                Long found = BY_CLASS.get(classes.substring(start, end).toLowerCase(Locale.ROOT));
+                if (found != null) {
+                    bits |= found;
+                }
+            }
+            start = end;
+        }
+        return bits;
+    }
+
+    private static long bits(int from, int to) {
+        return from >= to ? 0 : (-1L >>> (Long.SIZE - (to - from))) << from;
+    }
+
+    // One field's selectors, best first, and the selector used when none matches
+    private static final class Cascade {
+        final Field field;
+        final boolean allMatches;
+        final String[] selectors;
+        final String fallback;
+        // This cascade's range of selector numbers, and whether the walk tracks them
+        int first;
+        int end;
+        boolean walked;
+
+        long bits() {
+            return ArticleFieldExtractor.bits(first, end);
+        }
+
+        Cascade(Field field, boolean allMatches, String[] selectors, String fallback) {
+            this.field = field;
+            this.allMatches = allMatches;
+            this.selectors = selectors;
+            this.fallback = fallback;
+        }
+    }
+
+    // A compiled selector: either a compound selector, or "scope subject" for a descendant
+    private static final class Selector {
+        final Cascade cascade;
+        final int rank;
+        final String query;
+        final Evaluator scope;
+        final Evaluator subject;
+        // Set when the subject is just a class or names a tag
+        final String className;
+        final String tagName;
+        final String subjectTag;
+
+        Selector(Cascade cascade, int rank, String query) {
+            this.cascade = cascade;
+            this.rank = rank;
+            this.query = query;
+            // jsoup's descendant evaluator memoizes per document, so scopes are matched by walking up instead
+            int space = query.lastIndexOf(' ');
+            String subject = query.substring(space + 1);
+            String scope = space < 0 ? null : query.substring(0, space);
+            if (subject.matches(".*[>+~,].*") || (scope != null && scope.matches(".*[ >+~,].*"))) {
+                throw new IllegalArgumentException("Unsupported selector in extraction cascade: " + query);
+            }
+            this.scope = scope == null ? null : QueryParser.parse(scope);
+            this.subject = QueryParser.parse(subject);
+            this.className = subject.matches("\\.[\\w-]+") ? subject.substring(1).toLowerCase(Locale.ROOT) : null;
+            this.tagName = subject.matches("[a-z][a-z0-9]*") ? subject : null;
+            Matcher tag = Pattern.compile("^[a-z][a-z0-9]*").matcher(subject);
+            this.subjectTag = tag.find() ? tag.group() : null;
+        }
+
+        boolean inScope(Document doc, Element element) {
+            if (scope == null) {
+                return true;
+            }
+            for (Element ancestor = element.parent(); ancestor != null; ancestor = ancestor.parent()) {
+                if (scope.matches(doc, ancestor)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Matches recorded during one page's walk
+    private final class Walk implements NodeVisitor {
+        final Document doc;
+        final String host;
+        final Element[] firstMatch = new Element[SELECTORS.length];
+        final Elements[] allMatches = new Elements[SELECTORS.length];
+        // Elements the descendant selectors may match, in document order
+        final Elements kept = new Elements();
+        // JSON-LD blocks outside the head
+        final List<Element> scripts = new ArrayList<>();
+        // Per cascade, the rank of the remembered selector, or -1
+        final int[] remembered = new int[CASCADES.length];
+        // Selectors still being tested, and those not tested to the end of the walk
+        long live;
+        long dropped;
+        // Whether the page was walked at all; it is not when structured data named everything
+        boolean traversed;
+
+        Walk(Document doc, String host, long skipped) {
+            this.doc = doc;
+            this.host = host;
+            this.live = WALKED & ~skipped;
+            this.dropped = ~live;
+            for (int c = 0; c < CASCADES.length; c++) {
+                String selector = profiles.get(host, CASCADES[c].field);
+                remembered[c] = selector == null ? -1 : Arrays.asList(CASCADES[c].selectors).indexOf(selector);
+            }
+        }
+
+        @Override
+        public void head(Node node, int depth) {
+            if (!(node instanceof Element)) {
+                return;
+            }
+            Element element = (Element) node;
+            String tag = element.normalName();
+            traversed = true;
+            if (KEPT_TAGS.contains(tag)) {
+                kept.add(element);
+            } else if (tag.equals("script") && StructuredDataExtractor.isJsonLd(element) && element.parent() != doc.head()) {
+                scripts.add(element);
+            }
+            long matched = live & BY_TAG.getOrDefault(tag, 0L);
+            long tested = live & EVALUATED;
+            if (element.attributesSize() > 0) {
+                String classes = element.className();
+                if (!classes.isEmpty()) {
+                    matched |= live & classBits(classes);
+                }
+            } else {
+                tested &= ~NEEDS_ATTRIBUTES;
+            }
+            for (; tested != 0; tested &= tested - 1) {
+                int i = Long.numberOfTrailingZeros(tested);
+                if (SELECTORS[i].subject.matches(doc, element)) {
+                    matched |= 1L << i;
+                }
+            }
+            for (; matched != 0; matched &= matched - 1) {
+                int i = Long.numberOfTrailingZeros(matched);
+                if ((live & 1L << i) != 0) { // A better match on this element may have settled it
+                    record(i, SELECTORS[i], element);
+                }
+            }
+        }
+
+        @Override
+        public void tail(Node node, int depth) {
+        }
+
+        private void record(int i, Selector selector, Element element) {
+            Cascade cascade = selector.cascade;
+            if (cascade.allMatches) {
+                if (allMatches[i] == null) {
+                    allMatches[i] = new Elements();
+                    settle(i, selector);
+                }
+                allMatches[i].add(element);
+                return;
+            }
+            firstMatch[i] = element;
+            live &= ~(1L << i); // Like selectFirst, only the first match counts
+            // Cheaper than the value; if the value turns out empty, the dropped selectors are selected again
+            if (selector.query.startsWith("meta") ? element.hasAttr("content") : element.hasText()) {
+                settle(i, selector);
+            }
+        }
+
+        // The selector has matched; stop testing the ones that can no longer win
+        private void settle(int i, Selector selector) {
+            Cascade cascade = selector.cascade;
+            int remembered = this.remembered[Arrays.asList(CASCADES).indexOf(cascade)];
+            long stop = selector.rank == remembered
+                    ? bits(cascade.first, cascade.end) & ~(1L << i)
+                    : bits(i + 1, cascade.end);
+            if (remembered >= 0 && selector.rank != remembered) {
+                stop &= ~(1L << (cascade.first + remembered));
+            }
+            dropped |= stop & live;
+            live &= ~stop;
+        }
+
+        /** The cascade's answer, learning as ExtractionProfileCache#firstMatch does; null if none */
+        @SuppressWarnings("unchecked")
+        <T> T resolve(Cascade cascade) {
+            Object found = profiles.firstMatch(host, cascade.field, cascade.selectors,
+                    query -> result(cascade.first + Arrays.asList(cascade.selectors).indexOf(query)));
+            if (found == null && cascade.fallback != null) {
+                found = result(cascade.first + cascade.selectors.length);
+            }
+            return (T) found;
+        }
+
+        // What the selector found, selecting again only if the walk dropped it early
+        private Object result(int i) {
+            Selector selector = SELECTORS[i];
+            boolean tracked = (dropped & 1L << i) == 0;
+            if (!selector.cascade.allMatches) {
+                Element element = tracked ? firstMatch[i] : doc.selectFirst(selector.query);
+                return element == null ? null : valueOf(selector.cascade.field, selector.query, element);
+            }
+            Elements found;
+            if (!selector.cascade.walked && traversed) {
+                found = new Elements();
+                for (Element element : kept) {
+                    if (selector.subject.matches(doc, element) && selector.inScope(doc, element)) {
+                        found.add(element);
+                    }
+                }
+            } else {
+                found = tracked ? allMatches[i] : doc.select(selector.query);
+            }
+            if (found == null || found.isEmpty()) {
+                return selector.rank == selector.cascade.selectors.length ? new Elements() : null; // The fallback always answers
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.webscraper.app.service;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Learns, per host, the text blocks that repeat across a site's pages, such as
+ * newsletter pitches, cookie notices, standard disclaimers and "read more" boxes that
+ * sit inside the article container and so survive content scoring. Each block is
+ * reduced to a 64-bit fingerprint of its words, with case, punctuation and digits
+ * folded so a changing date or counter does not hide a repeat. A block found on three
+ * different pages of a host is boilerplate and is dropped from then on. Only
+ * fingerprints are kept, in {@link FingerprintSet}s with fixed caps per host, and a
+ * page is only learned from once however often it is extracted. Thread-safe.
+ */
+public class BoilerplateFilter {
+
+    // Caps per host; past them, counting starts over or stops, and memory stays bounded
+    private static final int MAX_PENDING = 4096;
+    private static final int MAX_PAGES = 1024;
+    private static final int MAX_BOILERPLATE = 2048;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Learn from the blocks of the page at pageUrl and return those that are not
+     * boilerplate for its host, in order. If dropping the boilerplate would leave less
+     * than minChars of text, the page is mostly repeated text (the same story under
+     * another URL, say) and every block is returned.
+     */
+    public List<String> filter(String pageUrl, List<String> blocks, int minChars) {
+        String host = host(pageUrl);
+        if (host == null || blocks.isEmpty()) {
+            return blocks;
+        }
+        long[] fingerprints = new long[blocks.size()];
+        for (int i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = fingerprint(blocks.get(i));
+        }
+        Site site = sites.computeIfAbsent(host, key -> new Site());
+        boolean[] repeated = site.learn(UrlCanonicalizer.fingerprint(pageUrl), fingerprints);
+
+        List<String> kept = new ArrayList<>(blocks.size());
+        int chars = 0;
+        for (int i = 0; i < blocks.size(); i++) {
+            if (!repeated[i]) {
+                kept.add(blocks.get(i));
+                chars += blocks.get(i).length();
+            }
+        }
+        if (kept.size() == blocks.size() || chars < minChars) {
+            return blocks;
+        }
+        dropped.addAndGet(blocks.size() - kept.size());
+        return kept;
+    }
+
+    /** Boilerplate blocks learned for host so far */
+    public int getBoilerplateCount(String host) {
+        Site site = sites.get(host.toLowerCase(Locale.ROOT));
+        return site == null ? 0 : site.size();
+    }
+
+    /** Blocks dropped from extracted text since startup */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? null : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // FNV-style over the lowercased letters, each marked if it starts a word and packed
+    // three to a multiply, then a MurmurHash3 finalizer; 0 for a block with no letters,
+    // which is never treated as boilerplate
+    static long fingerprint(String block) {
+        long hash = FNV_OFFSET;
+        long packed = 0;
+        int count = 0;
+        boolean letters = false;
+        boolean gap = false;
+        for (int i = 0; i < block.length(); i++) {
+            char c = block.charAt(i);
+            if (c < 0x80) { // ASCII without the Character table lookups
+                char lower = (char) (c | 0x20);
+                if (lower < 'a' || lower > 'z') {
+                    gap = letters;
+                    continue;
+                }
+                c = lower;
+            } else if (Character.isLetter(c)) {
+                c = Character.toLowerCase(c);
+            } else {
+                gap = letters;
+                continue;
+            }
+            packed = packed << 21 | (gap ? c | 0x10000 : c);
+            gap = false;
+            letters = true;
+            if (++count == 3) {
+                hash = (hash ^ packed) * FNV_PRIME;
+                packed = 0;
+                count = 0;
+            }
+        }
+        if (!letters) {
+            return 0;
+        }
+        hash = (hash ^ packed) * FNV_PRIME;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    // What one host has taught: pages learned from, and blocks seen on one, two or three pages
+    private static final class Site {
+        private FingerprintSet pages = new FingerprintSet();
+        private FingerprintSet once = new FingerprintSet();
+        private FingerprintSet twice = new FingerprintSet();
+        private final FingerprintSet boilerplate = new FingerprintSet();
+
+        // Whether each block is boilerplate, counting this page if it is new
+        synchronized boolean[] learn(long page, long[] fingerprints) {
+            boolean[] repeated = new boolean[fingerprints.length];
+            boolean counted = !pages.add(page);
+            FingerprintSet onPage = counted ? null : new FingerprintSet(fingerprints.length);
+            for (int i = 0; i < fingerprints.length; i++) {
+                long fingerprint = fingerprints[i];
+                if (fingerprint == 0) {
+                    continue;
+                }
+                if (!counted && onPage.add(fingerprint) && !boilerplate.contains(fingerprint)) {
+                    count(fingerprint);
+                }
+                repeated[i] = boilerplate.contains(fingerprint);
+            }
+            if (pages.size() > MAX_PAGES) {
+                pages = new FingerprintSet(); // Forget old pages; one extracted again counts again
+            }
+            return repeated;
+        }
+
+        private void count(long fingerprint) {
+            if (!once.add(fingerprint)) {
+                if (twice.add(fingerprint)) {
+                    return;
+                }
+                if (boilerplate.size() < MAX_BOILERPLATE) {
+                    boilerplate.add(fingerprint);
+                }
+            } else if (once.size() > MAX_PENDING) {
+                // Mostly one-off article text; start counting afresh
+                once = new FingerprintSet();
+                twice = new FingerprintSet();
+            }
+        }
+
+        synchronized int size() {
+            return boilerplate.size();
+        }
+    }
+}
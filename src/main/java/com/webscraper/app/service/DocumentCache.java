@@ -0,0 +1,215 @@
+package com.webscraper.app.service;
+
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of recently fetched pages and their parsed Documents, keyed by the
+ * requested URL. Previewing a link and then analyzing it parses the page once. Entries
+ * expire after a TTL and are evicted least-recently-used past a memory budget.
+ * Concurrent requests for the same URL share one fetch.
+ *
+ * Cached Documents are shared between callers and must be treated as read-only;
+ * clone one before modifying it.
+ */
+public class DocumentCache {
+
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    // A parsed DOM takes several times the memory of its source bytes
+    private static final int DOM_WEIGHT = 6;
+
+    private final long ttlNanos;
+    private final long maxBytes;
+    // url -> page, in access order (eldest first)
+    private final LinkedHashMap<String, Page> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Page>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long totalBytes;
+
+    public DocumentCache() {
+        this(DEFAULT_TTL_MILLIS, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param ttlMillis how long a page is served from memory after it was fetched
+     * @param maxBytes  approximate memory budget for bodies plus parsed Documents
+     */
+    public DocumentCache(long ttlMillis, long maxBytes) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxBytes = maxBytes;
+    }
+
+    public interface Loader {
+        FetchResponse load() throws IOException;
+    }
+
+    /**
+     * Return the cached page for the URL, or run the loader and cache its result.
+     * A page that was cut off at a smaller body limit than {@code maxBodySize} is
+     * refetched. Error responses (400 and above) are returned but not cached.
+     */
+    public Page get(String url, int maxBodySize, Loader loader) throws IOException {
+        while (true) {
+            Page cached = lookup(url, maxBodySize);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+
+            CompletableFuture<Page> mine = new CompletableFuture<>();
+            CompletableFuture<Page> inFlight = loading.putIfAbsent(url, mine);
+            if (inFlight == null) {
+                return load(url, maxBodySize, loader, mine);
+            }
+            Page page;
+            try {
+                page = await(inFlight);
+            } catch (InterruptedIOException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                continue; // The shared load was cancelled (e.g. a prefetch), not us; load again
+            }
+            if (page.covers(maxBodySize)) {
+                hits.incrementAndGet();
+                return page;
+            }
+            return load(url, maxBodySize, loader, null); // Shared load used a smaller limit
+        }
+    }
+
+    /** Cached page if present and fresh, without loading or counting a lookup */
+    public Page peek(String url) {
+        return lookup(url, 0);
+    }
+
+    public synchronized void invalidate(String url) {
+        Page removed = pages.remove(url);
+        if (removed != null) {
+            totalBytes -= removed.weight;
+        }
+    }
+
+    public synchronized void clear() {
+        pages.clear();
+        totalBytes = 0;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return pages.size();
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private Page load(String url, int maxBodySize, Loader loader, CompletableFuture<Page> future) throws IOException {
+        misses.incrementAndGet();
+        try {
+            FetchResponse response = loader.load();
+            Page page = new Page(response, response.getStatusCode() < 400 ? response.parse() : null, maxBodySize);
+            if (page.document != null) {
+                put(url, page);
+            }
+            if (future != null) {
+                future.complete(page);
+            }
+            return page;
+        } catch (IOException | RuntimeException e) {
+            if (future != null) {
+                future.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            if (future != null) {
+                loading.remove(url, future);
+            }
+        }
+    }
+
+    private synchronized Page lookup(String url, int maxBodySize) {
+        Page page = pages.get(url);
+        if (page == null) {
+            return null;
+        }
+        if (System.nanoTime() - page.storedAt > ttlNanos) {
+            pages.remove(url);
+            totalBytes -= page.weight;
+            return null;
+        }
+        return page.covers(maxBodySize) ? page : null;
+    }
+
+    private synchronized void put(String url, Page page) {
+        if (page.weight > maxBytes) {
+            return;
+        }
+        Page previous = pages.put(url, page);
+        totalBytes += page.weight - (previous != null ? previous.weight : 0);
+        Iterator<Page> eldest = pages.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().weight;
+            eldest.remove();
+        }
+    }
+
+    private static Page await(CompletableFuture<Page> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a shared page load");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /** A fetched response with its parsed Document (null for error responses) */
+    public static class Page {
+        private final FetchResponse response;
+        private final Document document;
+        private final int maxBodySize;
+        private final long weight;
+        private final long storedAt = System.nanoTime();
+
+        private Page(FetchResponse response, Document document, int maxBodySize) {
+            this.response = response;
+            this.document = document;
+            this.maxBodySize = maxBodySize;
+            this.weight = (long) response.getBody().length * (1 + DOM_WEIGHT);
+        }
+
+        public FetchResponse getResponse() { return response; }
+        public Document getDocument() { return document; }
+
+        // A complete body serves any limit; a truncated one only limits up to its own
+        boolean covers(int requestedMaxBodySize) {
+            return !response.isTruncated() || requestedMaxBodySize <= maxBodySize;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.webscraper.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Remembers, per host, which selector of each extraction cascade found the headline,
+ * author, date, body and images last time. A site's pages share a template, so the
+ * remembered selector is tried first and the rest of the cascade is only walked when
+ * it stops matching, after which the new winner is remembered. Profiles are saved to
+ * a properties file whenever one changes and loaded at startup; a missing or broken
+ * file just means starting to learn again.
+ */
+public class ExtractionProfileCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractionProfileCache.class);
+
+    /** The cascades a profile covers */
+    public enum Field {
+        PREVIEW_CONTENT, PREVIEW_IMAGES, HEADLINE, AUTHOR, DATE, CONTENT, IMAGES
+    }
+
+    private final Path file;
+    // "host.FIELD" -> selector
+    private final Map<String, String> selectors = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ExtractionProfileCache() {
+        this(Paths.get(System.getProperty("user.home"), ".web-scraper", "extraction-profiles.properties"));
+    }
+
+    /** @param file where profiles are kept; null to keep them in memory only */
+    public ExtractionProfileCache(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * Run attempt on each selector, starting with the one remembered for the host, and
+     * return the first non-null result. Null if no selector produced a result.
+     */
+    public <T> T firstMatch(String host, Field field, String[] cascade, Function<String, T> attempt) {
+        String key = key(host, field);
+        String remembered = selectors.get(key);
+        if (remembered != null && !Arrays.asList(cascade).contains(remembered)) {
+            remembered = null; // Learned from an older cascade
+        }
+        if (remembered != null) {
+            T result = attempt.apply(remembered);
+            if (result != null) {
+                hits.incrementAndGet();
+                return result;
+            }
+        }
+        misses.incrementAndGet();
+
+        for (String selector : cascade) {
+            if (selector.equals(remembered)) {
+                continue; // Already failed above
+            }
+            T result = attempt.apply(selector);
+            if (result != null) {
+                remember(key, selector);
+                return result;
+            }
+        }
+        if (remembered != null && selectors.remove(key, remembered)) {
+            save();
+        }
+        return null;
+    }
+
+    /** The remembered selector, or null */
+    public String get(String host, Field field) {
+        return selectors.get(key(host, field));
+    }
+
+    public void clear() {
+        selectors.clear();
+        save();
+    }
+
+    /** Lookups answered by the remembered selector */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** Lookups that had to walk the cascade */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private void remember(String key, String selector) {
+        if (!selector.equals(selectors.put(key, selector))) {
+            save();
+        }
+    }
+
+    private static String key(String host, Field field) {
+        return (host == null ? "" : host.toLowerCase()) + "." + field.name();
+    }
+
+    private void load() {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable extraction profiles {}: {}", file, e.getMessage());
+            return;
+        }
+        properties.forEach((key, value) -> selectors.put((String) key, (String) value));
+        log.info("Loaded {} learned selectors from {}", selectors.size(), file);
+    }
+
+    private synchronized void save() {
+        if (file == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.putAll(selectors);
+        Path directory = file.toAbsolutePath().getParent();
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, "extraction-profiles", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, "Learned extraction selectors per host");
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not save extraction profiles: {}", e.getMessage());
+        }
+    }
+}
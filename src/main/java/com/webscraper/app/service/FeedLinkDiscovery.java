@@ -0,0 +1,318 @@
+package com.webscraper.app.service;
+
+import com.webscraper.app.dto.LinkItem;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads article links from a site's RSS, Atom or RSS 1.0 (RDF) feed. A page URL is
+ * resolved to its feed through {@code <link rel="alternate">} in the page head; a feed
+ * URL is used as is. Both the page-to-feed mapping and each feed's parsed items are
+ * remembered, so polling an unchanged feed costs one conditional GET answered with
+ * 304 and no parsing.
+ */
+public class FeedLinkDiscovery {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedLinkDiscovery.class);
+
+    private static final int MAX_REMEMBERED_FEEDS = 64;
+    private static final int MAX_FEED_BYTES = 5 * 1024 * 1024;
+    private static final Set<String> FEED_TYPES = Set.of(
+            "application/rss+xml", "application/atom+xml", "application/rdf+xml");
+    private static final DateTimeFormatter RFC_822_NAMED_ZONE =
+            DateTimeFormatter.ofPattern("[EEE, ]d MMM yyyy HH:mm[:ss] zzz", Locale.US);
+
+    private final PageFetcher fetcher;
+    private final XMLInputFactory xmlInputFactory;
+    // page URL -> feed URL found in its head
+    private final Map<String, String> feedUrls = Collections.synchronizedMap(lruMap());
+    // feed URL -> items parsed from the last full response
+    private final Map<String, List<LinkItem>> parsedFeeds = Collections.synchronizedMap(lruMap());
+
+    FeedLinkDiscovery(PageFetcher fetcher) {
+        this.fetcher = fetcher;
+        this.xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Links from the feed behind {@code url}, which may be the feed itself or a page
+     * that advertises one. Returns at most {@code limit} items, newest first.
+     */
+    public List<LinkItem> discover(String url, int limit) throws IOException {
+        String feedUrl = feedUrls.get(url);
+        if (feedUrl == null) {
+            FetchResponse response = fetchFeed(url);
+            if (isFeed(response)) {
+                feedUrls.put(url, url);
+                return limit(parseAndRemember(url, response), limit);
+            }
+            feedUrl = findFeedLink(response);
+            if (feedUrl == null) {
+                throw new IOException("No RSS or Atom feed is advertised on " + url +
+                        ". Enter the feed URL directly if the site has one.");
+            }
+            log.info("Found feed {} for {}", feedUrl, url);
+            feedUrls.put(url, feedUrl);
+        }
+        return limit(read(feedUrl), limit);
+    }
+
+    /** True when the response is a feed rather than an HTML page */
+    static boolean isFeed(FetchResponse response) {
+        String type = response.getContentType();
+        if (type != null) {
+            String mime = type.toLowerCase(Locale.ROOT).split(";")[0].trim();
+            if (FEED_TYPES.contains(mime)) {
+                return true;
+            }
+            if (mime.contains("html")) {
+                return false;
+            }
+        }
+        // application/xml and text/xml are used for feeds and everything else; check the root element
+        byte[] body = response.getBody();
+        String head = new String(body, 0, Math.min(body.length, 1024), StandardCharsets.ISO_8859_1);
+        return head.contains("<rss") || head.contains("<feed") || head.contains("<rdf:RDF");
+    }
+
+    /** Parse a feed response that has already been fetched */
+    List<LinkItem> parse(String feedUrl, FetchResponse response, int limit) throws IOException {
+        return limit(parseAndRemember(feedUrl, response), limit);
+    }
+
+    private List<LinkItem> read(String feedUrl) throws IOException {
+        FetchResponse response = fetchFeed(feedUrl);
+        List<LinkItem> remembered = parsedFeeds.get(feedUrl);
+        if (response.isNotModified() && remembered != null) {
+            log.debug("Feed not modified, reusing {} items: {}", remembered.size(), feedUrl);
+            return remembered;
+        }
+        if (!isFeed(response)) {
+            throw new IOException("Not an RSS or Atom feed: " + feedUrl);
+        }
+        return parseAndRemember(feedUrl, response);
+    }
+
+    private FetchResponse fetchFeed(String url) throws IOException {
+        FetchResponse response = fetcher.fetch(FetchRequest.get(url)
+                .header("Accept", "application/rss+xml,application/atom+xml,application/xml;q=0.9,text/xml;q=0.9,text/html;q=0.8,*/*;q=0.5")
+                .timeout(10000)
+                .maxBodySize(MAX_FEED_BYTES));
+        if (response.getStatusCode() >= 400) {
+            throw new IOException("HTTP error " + response.getStatusCode() + " while loading " + url);
+        }
+        return response;
+    }
+
+    private List<LinkItem> parseAndRemember(String feedUrl, FetchResponse response) throws IOException {
+        List<LinkItem> items = parseFeed(response);
+        items.sort(Comparator.comparing(LinkItem::getPublishedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        List<LinkItem> unmodifiable = Collections.unmodifiableList(items);
+        parsedFeeds.put(feedUrl, unmodifiable);
+        log.info("Parsed {} feed items from {}", items.size(), feedUrl);
+        return unmodifiable;
+    }
+
+    // Only the head is needed, so stop parsing as soon as it closes
+    private static String findFeedLink(FetchResponse response) throws IOException {
+        Charset charset = StandardCharsets.UTF_8;
+        if (response.getCharset() != null) {
+            try {
+                charset = Charset.forName(response.getCharset());
+            } catch (IllegalArgumentException e) {
+                // Keep UTF-8
+            }
+        }
+        try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(response.getBody()), charset)), response.getUrl())) {
+            Iterator<Element> elements = parser.iterator();
+            while (elements.hasNext()) {
+                Element element = elements.next();
+                if (element.normalName().equals("link")
+                        && element.attr("rel").toLowerCase(Locale.ROOT).contains("alternate")
+                        && FEED_TYPES.contains(element.attr("type").toLowerCase(Locale.ROOT).trim())) {
+                    String href = element.absUrl("href");
+                    if (!href.isEmpty()) {
+                        return href;
+                    }
+                } else if (element.normalName().equals("head") || element.normalName().equals("body")) {
+                    break;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return null;
+    }
+
+    private List<LinkItem> parseFeed(FetchResponse response) throws IOException {
+        List<LinkItem> items = new ArrayList<>();
+        try {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(response.getBody()));
+            try {
+                parseItems(reader, response.getUrl(), items);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            // A truncated feed still yields the items before the error
+            if (items.isEmpty()) {
+                throw new IOException("Invalid feed XML: " + e.getMessage());
+            }
+        }
+        return items;
+    }
+
+    private void parseItems(XMLStreamReader reader, String feedUrl, List<LinkItem> items) throws XMLStreamException {
+        boolean inItem = false;
+        String title = null;
+        String link = null;
+        String date = null;
+        boolean guidIsLink = false;
+        StringBuilder text = new StringBuilder();
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                text.setLength(0);
+                if (name.equals("item") || name.equals("entry")) {
+                    inItem = true;
+                    title = link = date = null;
+                } else if (inItem && name.equals("link")) {
+                    // Atom puts the URL in href; RSS puts it in the element text
+                    String href = reader.getAttributeValue(null, "href");
+                    String rel = reader.getAttributeValue(null, "rel");
+                    if (href != null && (rel == null || rel.equals("alternate")) && link == null) {
+                        link = href;
+                    }
+                } else if (inItem && name.equals("guid")) {
+                    guidIsLink = !"false".equals(reader.getAttributeValue(null, "isPermaLink"));
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT && inItem) {
+                String value = text.toString().trim();
+                text.setLength(0);
+                switch (reader.getLocalName()) {
+                    case "title":
+                        if (title == null) {
+                            title = value; // media:title and source titles come later
+                        }
+                        break;
+                    case "link":
+                        if (link == null && !value.isEmpty()) {
+                            link = value;
+                        }
+                        break;
+                    case "guid":
+                        if (link == null && guidIsLink && value.startsWith("http")) {
+                            link = value;
+                        }
+                        break;
+                    case "pubDate":
+                    case "published":
+                    case "date":
+                        date = value;
+                        break;
+                    case "updated":
+                        if (date == null) {
+                            date = value;
+                        }
+                        break;
+                    case "item":
+                    case "entry":
+                        inItem = false;
+                        if (link != null) {
+                            String url = resolve(feedUrl, link);
+                            String itemTitle = title != null && !title.isEmpty() ? plainText(title) : SitemapLinkDiscovery.titleFromUrl(url);
+                            if (itemTitle.length() > 100) {
+                                itemTitle = itemTitle.substring(0, 97) + "...";
+                            }
+                            items.add(new LinkItem(itemTitle, url, parseFeedDate(date)));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    /** RSS uses RFC 822 dates; Atom and Dublin Core use ISO 8601 */
+    static Instant parseFeedDate(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (Character.isDigit(value.charAt(0)) && value.length() > 4 && value.charAt(4) == '-') {
+            return SitemapLinkDiscovery.parseW3cDate(value);
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException e) {
+            try {
+                return ZonedDateTime.parse(value, RFC_822_NAMED_ZONE).toInstant(); // e.g. "EST", "PDT"
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    // Titles are often escaped HTML ("&amp;amp;", "<b>")
+    private static String plainText(String title) {
+        return title.indexOf('<') >= 0 || title.indexOf('&') >= 0 ? Jsoup.parseBodyFragment(title).text() : title;
+    }
+
+    private static String resolve(String base, String link) {
+        try {
+            return URI.create(base).resolve(link.trim()).toString();
+        } catch (IllegalArgumentException e) {
+            return link.trim();
+        }
+    }
+
+    private static List<LinkItem> limit(List<LinkItem> items, int limit) {
+        return new ArrayList<>(items.size() > limit ? items.subList(0, limit) : items);
+    }
+
+    private static <V> Map<String, V> lruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > MAX_REMEMBERED_FEEDS;
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.webscraper.app.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-request settings for {@link HttpFetcher}. Defaults match the browser-like
+ * headers the scraper has always sent; callers only override what differs.
+ */
+public class FetchRequest {
+    private final String url;
+    private String referrer;
+    private int timeoutMillis = 10000;
+    private int maxBodySize = 2 * 1024 * 1024;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    private FetchRequest(String url) {
+        this.url = url;
+    }
+
+    public static FetchRequest get(String url) {
+        return new FetchRequest(url);
+    }
+
+    public FetchRequest referrer(String referrer) {
+        this.referrer = referrer;
+        return this;
+    }
+
+    public FetchRequest timeout(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        return this;
+    }
+
+    public FetchRequest maxBodySize(int maxBodySize) {
+        this.maxBodySize = maxBodySize;
+        return this;
+    }
+
+    public FetchRequest header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    FetchRequest copy() {
+        FetchRequest copy = new FetchRequest(url);
+        copy.referrer = referrer;
+        copy.timeoutMillis = timeoutMillis;
+        copy.maxBodySize = maxBodySize;
+        copy.headers.putAll(headers);
+        return copy;
+    }
+
+    public String getUrl() { return url; }
+    public String getReferrer() { return referrer; }
+    public int getTimeoutMillis() { return timeoutMillis; }
+    public int getMaxBodySize() { return maxBodySize; }
+    public Map<String, String> getHeaders() { return headers; }
+}
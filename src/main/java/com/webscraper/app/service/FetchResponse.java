@@ -0,0 +1,63 @@
+package com.webscraper.app.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A fully buffered response from {@link HttpFetcher}.
+ */
+public class FetchResponse {
+    private final int statusCode;
+    private final String url;
+    private final String contentType;
+    private final String charset;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final boolean truncated;
+    private final boolean notModified;
+
+    public FetchResponse(int statusCode, String url, String contentType, String charset,
+                         Map<String, String> headers, byte[] body, boolean truncated) {
+        this(statusCode, url, contentType, charset, headers, body, truncated, false);
+    }
+
+    public FetchResponse(int statusCode, String url, String contentType, String charset,
+                         Map<String, String> headers, byte[] body, boolean truncated, boolean notModified) {
+        this.statusCode = statusCode;
+        this.url = url;
+        this.contentType = contentType;
+        this.charset = charset;
+        this.headers = headers;
+        this.body = body;
+        this.truncated = truncated;
+        this.notModified = notModified;
+    }
+
+    public int getStatusCode() { return statusCode; }
+    /** Final URL after redirects; used as the base URI for relative links */
+    public String getUrl() { return url; }
+    public String getContentType() { return contentType; }
+    public String getCharset() { return charset; }
+    public Map<String, String> getHeaders() { return headers; }
+    public byte[] getBody() { return body; }
+    /** True when the body was cut off at the request's maxBodySize */
+    public boolean isTruncated() { return truncated; }
+    /** True when the server answered 304 and the body came from the response cache */
+    public boolean isNotModified() { return notModified; }
+
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    /**
+     * Parse the body as HTML. When the server did not declare a charset, jsoup
+     * sniffs the BOM and meta tags, the same as {@code Jsoup.connect().get()} did.
+     */
+    public Document parse() throws IOException {
+        return Jsoup.parse(new ByteArrayInputStream(body), charset, url);
+    }
+}
@@ -0,0 +1,58 @@
+package com.webscraper.app.service;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * An open response whose body is read as it arrives. Closing the stream before
+ * the body is complete aborts the exchange, so the rest is never downloaded.
+ */
+public class FetchStream implements Closeable {
+    private final int statusCode;
+    private final String url;
+    private final String contentType;
+    private final String charset;
+    private final Map<String, String> headers;
+    private final InputStream body;
+    private final StreamingResponseConsumer consumer;
+    private final Future<Void> exchange;
+
+    FetchStream(int statusCode, String url, String contentType, String charset, Map<String, String> headers,
+                InputStream body, StreamingResponseConsumer consumer, Future<Void> exchange) {
+        this.statusCode = statusCode;
+        this.url = url;
+        this.contentType = contentType;
+        this.charset = charset;
+        this.headers = headers;
+        this.body = body;
+        this.consumer = consumer;
+        this.exchange = exchange;
+    }
+
+    public int getStatusCode() { return statusCode; }
+    /** Final URL after redirects */
+    public String getUrl() { return url; }
+    public String getContentType() { return contentType; }
+    public String getCharset() { return charset; }
+    public Map<String, String> getHeaders() { return headers; }
+    /** Decoded (gunzipped/inflated) body */
+    public InputStream getBody() { return body; }
+
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    /** True once the server has sent the whole body */
+    boolean isComplete() {
+        return consumer.isEnded();
+    }
+
+    @Override
+    public void close() {
+        if (!consumer.isEnded()) {
+            exchange.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.webscraper.app.service;
+
+/**
+ * Set of 64-bit URL fingerprints in one open-addressing {@code long[]} with linear
+ * probing: 8 bytes per slot instead of a String, its char array and a HashMap node
+ * per URL. Fingerprints are already well mixed, so their low bits index the table
+ * directly. Not thread-safe.
+ */
+final class FingerprintSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] slots;  // 0 marks an empty slot; fingerprint 0 is tracked separately
+    private boolean containsZero;
+    private int size;
+
+    FingerprintSet() {
+        this(MIN_CAPACITY);
+    }
+
+    FingerprintSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        slots = new long[capacity];
+    }
+
+    /** Add a fingerprint; false if it was already present */
+    boolean add(long fingerprint) {
+        if (fingerprint == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = slots.length - 1;
+        int index = index(fingerprint, mask);
+        while (slots[index] != 0) {
+            if (slots[index] == fingerprint) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = fingerprint;
+        size++;
+        if (size * 2 > slots.length) { // Keep the load factor at or below 1/2
+            grow();
+        }
+        return true;
+    }
+
+    boolean contains(long fingerprint) {
+        if (fingerprint == 0) {
+            return containsZero;
+        }
+        int mask = slots.length - 1;
+        for (int index = index(fingerprint, mask); slots[index] != 0; index = (index + 1) & mask) {
+            if (slots[index] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        int mask = slots.length - 1;
+        for (long fingerprint : old) {
+            if (fingerprint != 0) {
+                int index = index(fingerprint, mask);
+                while (slots[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = fingerprint;
+            }
+        }
+    }
+
+    private static int index(long fingerprint, int mask) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,133 @@
+package com.webscraper.app.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-host politeness: a token bucket enforces the minimum spacing between request
+ * starts to one host, and a semaphore caps how many requests to that host are in
+ * flight. Hosts never wait on each other, so requests to different sites run fully
+ * in parallel.
+ */
+public class HostPolitenessScheduler {
+
+    public static final long DEFAULT_MIN_SPACING_MILLIS = 500;
+    public static final int DEFAULT_BURST = 1;
+    public static final int DEFAULT_MAX_CONCURRENCY_PER_HOST = 2;
+
+    private final long minSpacingNanos;
+    private final int burst;
+    private final int maxConcurrencyPerHost;
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    public HostPolitenessScheduler() {
+        this(DEFAULT_MIN_SPACING_MILLIS, DEFAULT_BURST, DEFAULT_MAX_CONCURRENCY_PER_HOST);
+    }
+
+    /**
+     * @param minSpacingMillis      minimum time between two request starts to the same host
+     * @param burst                 requests a quiet host may start back to back before spacing applies
+     * @param maxConcurrencyPerHost requests to the same host allowed in flight at once
+     */
+    public HostPolitenessScheduler(long minSpacingMillis, int burst, int maxConcurrencyPerHost) {
+        if (burst < 1 || maxConcurrencyPerHost < 1) {
+            throw new IllegalArgumentException("burst and maxConcurrencyPerHost must be at least 1");
+        }
+        this.minSpacingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, minSpacingMillis));
+        this.burst = burst;
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+    }
+
+    /**
+     * Block until a request to the host may start. Close the returned permit when
+     * the request finishes so the next one queued for the host can go.
+     */
+    public Permit acquire(String host) throws InterruptedException {
+        HostState state = hosts.computeIfAbsent(key(host), k -> new HostState());
+        state.waiting.incrementAndGet();
+        try {
+            state.concurrency.acquire();
+            try {
+                long waitNanos = state.reserve();
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
+            } catch (InterruptedException e) {
+                state.concurrency.release();
+                throw e;
+            }
+        } finally {
+            state.waiting.decrementAndGet();
+        }
+        state.active.incrementAndGet();
+        return new Permit(state);
+    }
+
+    /** Requests currently waiting for their turn on the host */
+    public int getQueueDepth(String host) {
+        HostState state = hosts.get(key(host));
+        return state == null ? 0 : state.waiting.get();
+    }
+
+    /** Requests currently running against the host */
+    public int getActiveCount(String host) {
+        HostState state = hosts.get(key(host));
+        return state == null ? 0 : state.active.get();
+    }
+
+    /** Queue depth of every host seen so far, sorted by host name */
+    public Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> depths = new TreeMap<>();
+        hosts.forEach((host, state) -> depths.put(host, state.waiting.get()));
+        return depths;
+    }
+
+    private static String key(String host) {
+        return host == null || host.isEmpty() ? "unknown" : host.toLowerCase();
+    }
+
+    public static class Permit implements AutoCloseable {
+        private final HostState state;
+        private boolean released;
+
+        private Permit(HostState state) {
+            this.state = state;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                state.active.decrementAndGet();
+                state.concurrency.release();
+            }
+        }
+    }
+
+    private class HostState {
+        final Semaphore concurrency = new Semaphore(maxConcurrencyPerHost, true);
+        final AtomicInteger waiting = new AtomicInteger();
+        final AtomicInteger active = new AtomicInteger();
+        private double tokens = burst;
+        private long lastRefill = System.nanoTime();
+
+        /**
+         * Take one token and return how long the caller must wait for it. Tokens may
+         * go negative, which reserves later slots for the callers queued behind.
+         */
+        synchronized long reserve() {
+            if (minSpacingNanos == 0) {
+                return 0;
+            }
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (double) (now - lastRefill) / minSpacingNanos);
+            lastRefill = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) (-tokens * minSpacingNanos);
+        }
+    }
+}
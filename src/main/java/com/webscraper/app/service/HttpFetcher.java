@@ -0,0 +1,298 @@
+package com.webscraper.app.service;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.protocol.RedirectLocations;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Shared HTTP layer for all scraper fetches. Connections are pooled per route and
+ * kept alive between requests, and HTTP/2 is negotiated over TLS (ALPN) when the
+ * server offers it, so repeated requests to a site skip the TCP and TLS handshakes.
+ */
+public class HttpFetcher implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpFetcher.class);
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 64;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 6;
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 5000;
+
+    static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    // Brotli is not advertised: neither jsoup nor the JDK can decode it
+    private static final Map<String, String> DEFAULT_HEADERS = new LinkedHashMap<>();
+    static {
+        DEFAULT_HEADERS.put("User-Agent", USER_AGENT);
+        DEFAULT_HEADERS.put("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8");
+        DEFAULT_HEADERS.put("Accept-Language", "en-US,en;q=0.9");
+        DEFAULT_HEADERS.put("Accept-Encoding", "gzip, deflate");
+        DEFAULT_HEADERS.put("Sec-Ch-Ua", "\"Not_A Brand\";v=\"8\", \"Chromium\";v=\"120\", \"Google Chrome\";v=\"120\"");
+        DEFAULT_HEADERS.put("Sec-Ch-Ua-Mobile", "?0");
+        DEFAULT_HEADERS.put("Sec-Ch-Ua-Platform", "\"Windows\"");
+        DEFAULT_HEADERS.put("Sec-Fetch-Dest", "document");
+        DEFAULT_HEADERS.put("Sec-Fetch-Mode", "navigate");
+        DEFAULT_HEADERS.put("Upgrade-Insecure-Requests", "1");
+    }
+
+    private final CloseableHttpAsyncClient client;
+    private final HttpResponseCache cache;
+
+    public HttpFetcher() {
+        this(null);
+    }
+
+    /**
+     * @param cache response cache for conditional GETs, or null to always download
+     */
+    public HttpFetcher(HttpResponseCache cache) {
+        this(DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS_PER_ROUTE, DEFAULT_CONNECT_TIMEOUT_MILLIS, cache);
+    }
+
+    public HttpFetcher(int maxConnections, int maxConnectionsPerRoute, int connectTimeoutMillis, HttpResponseCache cache) {
+        this(maxConnections, maxConnectionsPerRoute, connectTimeoutMillis, cache, null);
+    }
+
+    HttpFetcher(int maxConnections, int maxConnectionsPerRoute, int connectTimeoutMillis, HttpResponseCache cache,
+                TlsStrategy tlsStrategy) {
+        this.cache = cache;
+        PoolingAsyncClientConnectionManagerBuilder connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .setDefaultTlsConfig(TlsConfig.custom()
+                        .setVersionPolicy(HttpVersionPolicy.NEGOTIATE)
+                        .build());
+        if (tlsStrategy != null) {
+            connectionManager.setTlsStrategy(tlsStrategy);
+        }
+
+        this.client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager.build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setRedirectsEnabled(true)
+                        .setMaxRedirects(10)
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+        this.client.start();
+    }
+
+    /**
+     * Fetch and buffer the whole body, up to the request's maxBodySize. HTTP error
+     * statuses are returned, not thrown, so callers can word their own messages.
+     * With a response cache, a previously seen URL is revalidated with
+     * If-None-Match/If-Modified-Since and a 304 answer reuses the stored body; if that
+     * body has been evicted meanwhile, the request is sent once more without validators.
+     */
+    public FetchResponse fetch(FetchRequest request) throws IOException {
+        HttpResponseCache.Entry cached = cache != null ? cache.get(request.getUrl()) : null;
+        FetchRequest effective = request;
+        if (cached != null) {
+            effective = request.copy();
+            if (cached.getEtag() != null) {
+                effective.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                effective.header("If-Modified-Since", cached.getLastModified());
+            }
+        }
+
+        try (FetchStream stream = open(effective)) {
+            if (stream.getStatusCode() != 304 || cached == null) {
+                return download(stream, request);
+            }
+            try {
+                byte[] body = cache.readBody(cached);
+                boolean truncated = body.length > request.getMaxBodySize();
+                if (truncated) {
+                    body = Arrays.copyOf(body, request.getMaxBodySize());
+                }
+                return new FetchResponse(200, cached.getFinalUrl(), cached.getContentType(), cached.getCharset(),
+                        stream.getHeaders(), body, truncated, true);
+            } catch (IOException e) {
+                // The body was evicted or deleted since get(); fall through and ask again
+                log.debug("Cached body for {} unavailable, fetching in full: {}", request.getUrl(), e.getMessage());
+            }
+        }
+
+        // Without validators, so the server cannot answer 304 again
+        try (FetchStream stream = open(request)) {
+            return download(stream, request);
+        }
+    }
+
+    // Buffer the body up to the request's maxBodySize and offer a complete response to the cache
+    private FetchResponse download(FetchStream stream, FetchRequest request) throws IOException {
+        int maxBodySize = request.getMaxBodySize();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(Math.min(maxBodySize, 64 * 1024));
+        InputStream in = stream.getBody();
+        byte[] buffer = new byte[8192];
+        boolean truncated = false;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            int room = maxBodySize - body.size();
+            if (n > room) {
+                body.write(buffer, 0, room);
+                truncated = true;
+                break;
+            }
+            body.write(buffer, 0, n);
+        }
+        FetchResponse response = new FetchResponse(stream.getStatusCode(), stream.getUrl(), stream.getContentType(),
+                stream.getCharset(), stream.getHeaders(), body.toByteArray(), truncated);
+        if (cache != null) {
+            cache.store(request.getUrl(), response);
+        }
+        return response;
+    }
+
+    /**
+     * Send the request and return as soon as the response headers arrive. The caller
+     * must close the returned stream; closing early aborts the download.
+     */
+    public FetchStream open(FetchRequest request) throws IOException {
+        URI uri;
+        try {
+            uri = URI.create(request.getUrl());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid URL: " + request.getUrl());
+        }
+
+        AsyncRequestBuilder builder = AsyncRequestBuilder.get(uri);
+        DEFAULT_HEADERS.forEach(builder::setHeader);
+        request.getHeaders().forEach(builder::setHeader);
+        if (request.getReferrer() != null) {
+            builder.setHeader("Referer", request.getReferrer());
+        }
+
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom()
+                .setRedirectsEnabled(true)
+                .setMaxRedirects(10)
+                .setResponseTimeout(Timeout.ofMilliseconds(request.getTimeoutMillis()))
+                .build());
+
+        StreamingResponseConsumer consumer = new StreamingResponseConsumer(request.getTimeoutMillis());
+        Future<Void> exchange = execute(builder.build(), consumer, context);
+
+        HttpResponse response;
+        try {
+            response = consumer.head().get(request.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            throw new SocketTimeoutException("Connect timed out after " + request.getTimeoutMillis() + " ms");
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while connecting to " + uri.getHost());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        for (Header header : response.getHeaders()) {
+            headers.put(header.getName().toLowerCase(), header.getValue());
+        }
+
+        String contentType = headers.get("content-type");
+        String charset = null;
+        if (contentType != null) {
+            Charset parsed = ContentType.parseLenient(contentType).getCharset();
+            charset = parsed != null ? parsed.name() : null;
+        }
+
+        String finalUrl = request.getUrl();
+        RedirectLocations redirects = context.getRedirectLocations();
+        if (redirects != null && redirects.size() > 0) {
+            finalUrl = redirects.get(redirects.size() - 1).toString();
+        }
+
+        InputStream body = consumer.hasEntity()
+                ? decode(consumer.body(), headers.get("content-encoding"))
+                : consumer.body();
+        return new FetchStream(response.getCode(), finalUrl, contentType, charset,
+                Collections.unmodifiableMap(headers), body, consumer, exchange);
+    }
+
+    private Future<Void> execute(AsyncRequestProducer producer, StreamingResponseConsumer consumer,
+                                 HttpClientContext context) {
+        return client.execute(producer, consumer, context, new FutureCallback<>() {
+            @Override
+            public void completed(Void result) {
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                consumer.failed(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                consumer.failed(new InterruptedIOException("Request cancelled"));
+            }
+        });
+    }
+
+    private InputStream decode(InputStream raw, String contentEncoding) throws IOException {
+        if (contentEncoding == null) {
+            return raw;
+        }
+        String encoding = contentEncoding.trim().toLowerCase();
+        if (encoding.equals("gzip") || encoding.equals("x-gzip")) {
+            return new GZIPInputStream(raw, 8192);
+        } else if (encoding.equals("deflate")) {
+            return new InflaterInputStream(raw);
+        }
+        return raw;
+    }
+
+    @Override
+    public void close() {
+        client.close(CloseMode.GRACEFUL);
+    }
+}
@@ -0,0 +1,245 @@
+package com.webscraper.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Disk-backed store of response bodies and their validators (ETag/Last-Modified),
+ * used by {@link HttpFetcher} to turn repeat fetches into conditional GETs. Entries
+ * are evicted least-recently-used once either the entry or the byte cap is exceeded.
+ * Cache failures are never fatal: a broken entry is treated as a miss.
+ */
+public class HttpResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpResponseCache.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+    public static final long DEFAULT_MAX_BYTES = 100L * 1024 * 1024;
+
+    private final Path directory;
+    private final int maxEntries;
+    private final long maxBytes;
+    // key -> body size, in access order (eldest first)
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public HttpResponseCache() {
+        this(Paths.get(System.getProperty("user.home"), ".web-scraper", "http-cache"),
+                DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    public HttpResponseCache(Path directory, int maxEntries, long maxBytes) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        loadIndex();
+    }
+
+    /** Validators and metadata for a cached URL, or null on a miss */
+    public synchronized Entry get(String url) {
+        String key = key(url);
+        if (!index.containsKey(key)) {
+            return null;
+        }
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(metaPath(key))) {
+            meta.load(in);
+        } catch (IOException e) {
+            remove(key);
+            return null;
+        }
+        if (!url.equals(meta.getProperty("url"))) {
+            return null; // Hash collision; let the fresh response overwrite it
+        }
+        return new Entry(key, meta);
+    }
+
+    /** Read the stored body after the server answered 304 Not Modified */
+    public synchronized byte[] readBody(Entry entry) throws IOException {
+        try {
+            byte[] body = Files.readAllBytes(bodyPath(entry.key));
+            Files.setLastModifiedTime(metaPath(entry.key), FileTime.fromMillis(System.currentTimeMillis()));
+            index.get(entry.key); // mark as recently used
+            return body;
+        } catch (IOException e) {
+            remove(entry.key);
+            throw e;
+        }
+    }
+
+    /**
+     * Store a complete 200 response. Responses without a validator are skipped,
+     * because they could never be revalidated.
+     */
+    public synchronized void store(String url, FetchResponse response) {
+        String etag = response.getHeader("etag");
+        String lastModified = response.getHeader("last-modified");
+        if (response.getStatusCode() != 200 || response.isTruncated() || (etag == null && lastModified == null)) {
+            return;
+        }
+        byte[] body = response.getBody();
+        if (body.length > maxBytes) {
+            return;
+        }
+
+        Properties meta = new Properties();
+        meta.setProperty("url", url);
+        meta.setProperty("finalUrl", response.getUrl());
+        meta.setProperty("storedAt", Long.toString(System.currentTimeMillis()));
+        setIfPresent(meta, "etag", etag);
+        setIfPresent(meta, "lastModified", lastModified);
+        setIfPresent(meta, "contentType", response.getContentType());
+        setIfPresent(meta, "charset", response.getCharset());
+
+        String key = key(url);
+        try {
+            Files.createDirectories(directory);
+            Path tmpBody = Files.createTempFile(directory, key, ".tmp");
+            Files.write(tmpBody, body);
+            Files.move(tmpBody, bodyPath(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Path tmpMeta = Files.createTempFile(directory, key, ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmpMeta)) {
+                meta.store(out, null);
+            }
+            Files.move(tmpMeta, metaPath(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not cache response for {}: {}", url, e.getMessage());
+            return;
+        }
+
+        Long previous = index.put(key, (long) body.length);
+        totalBytes += body.length - (previous != null ? previous : 0);
+        evict();
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+        while ((index.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            deleteFiles(entry.getKey());
+        }
+    }
+
+    private void remove(String key) {
+        Long size = index.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        deleteFiles(key);
+    }
+
+    private void deleteFiles(String key) {
+        try {
+            Files.deleteIfExists(metaPath(key));
+            Files.deleteIfExists(bodyPath(key));
+        } catch (IOException e) {
+            // Stale files are overwritten or ignored on the next load
+        }
+    }
+
+    // Rebuild the LRU order from the metadata files' last-access times
+    private void loadIndex() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> metas = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.meta")) {
+            files.forEach(metas::add);
+        } catch (IOException e) {
+            return;
+        }
+        metas.sort((a, b) -> lastModified(a).compareTo(lastModified(b)));
+        for (Path meta : metas) {
+            String file = meta.getFileName().toString();
+            String key = file.substring(0, file.length() - ".meta".length());
+            try {
+                long size = Files.size(bodyPath(key));
+                index.put(key, size);
+                totalBytes += size;
+            } catch (IOException e) {
+                deleteFiles(key);
+            }
+        }
+        evict();
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private Path metaPath(String key) {
+        return directory.resolve(key + ".meta");
+    }
+
+    private Path bodyPath(String key) {
+        return directory.resolve(key + ".body");
+    }
+
+    private static void setIfPresent(Properties meta, String name, String value) {
+        if (value != null) {
+            meta.setProperty(name, value);
+        }
+    }
+
+    private static String key(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static class Entry {
+        private final String key;
+        private final Properties meta;
+
+        private Entry(String key, Properties meta) {
+            this.key = key;
+            this.meta = meta;
+        }
+
+        public String getEtag() { return meta.getProperty("etag"); }
+        public String getLastModified() { return meta.getProperty("lastModified"); }
+        public String getFinalUrl() { return meta.getProperty("finalUrl"); }
+        public String getContentType() { return meta.getProperty("contentType"); }
+        public String getCharset() { return meta.getProperty("charset"); }
+    }
+}
@@ -0,0 +1,201 @@
+package com.webscraper.app.service;
+
+import com.webscraper.app.dto.ImageResult;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.HostnameVerificationPolicy;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import javax.swing.ImageIcon;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Loads and scales article images for the GUI. Images are fetched in parallel (up to
+ * {@link #DEFAULT_MAX_PARALLEL} at a time) over one pooled client whose lenient TLS
+ * setup is built once, and decoded and scaled off the event thread. Results are
+ * handed back in the order the URLs were given.
+ */
+public class ImageFetchService implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageFetchService.class);
+
+    public static final int DEFAULT_MAX_PARALLEL = 4;
+    private static final int MAX_WIDTH = 300;
+    private static final int MAX_HEIGHT = 200;
+    private static final int MIN_SIDE = 100; // Smaller images are usually icons or ads
+    private static final int MAX_IMAGE_BYTES = 8 * 1024 * 1024;
+
+    private final HttpFetcher fetcher;
+    private final Semaphore parallelism;
+    private final ExecutorService executor = TaskExecutors.newTaskExecutor("image-fetch");
+
+    public ImageFetchService() {
+        this(DEFAULT_MAX_PARALLEL);
+    }
+
+    public ImageFetchService(int maxParallel) {
+        this.fetcher = new HttpFetcher(HttpFetcher.DEFAULT_MAX_CONNECTIONS, HttpFetcher.DEFAULT_MAX_CONNECTIONS_PER_ROUTE,
+                HttpFetcher.DEFAULT_CONNECT_TIMEOUT_MILLIS, null, lenientTls());
+        this.parallelism = new Semaphore(maxParallel);
+    }
+
+    /**
+     * Fetch all images and pass each result to the callback in list order, as soon as
+     * it and every image before it are done. Runs the callback on the calling thread
+     * and returns when all images are delivered. Interrupting the caller cancels the
+     * images still in flight.
+     */
+    public void loadImages(List<String> imageUrls, Consumer<ImageResult> callback) throws InterruptedException {
+        List<Future<ImageResult>> pending = new ArrayList<>();
+        for (String imageUrl : imageUrls) {
+            pending.add(executor.submit(() -> load(imageUrl)));
+        }
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                ImageResult result;
+                try {
+                    result = pending.get(i).get();
+                } catch (ExecutionException e) {
+                    result = new ImageResult(null, imageUrls.get(i), false);
+                }
+                callback.accept(result);
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /** Fetch, decode and scale one image; failures and tiny images come back unsuccessful */
+    public ImageResult load(String imageUrl) throws InterruptedException {
+        parallelism.acquire();
+        try {
+            ImageIcon icon = loadIcon(imageUrl);
+            return new ImageResult(icon, imageUrl, icon != null);
+        } finally {
+            parallelism.release();
+        }
+    }
+
+    private ImageIcon loadIcon(String imageUrl) {
+        try {
+            log.debug("Loading image: {}", imageUrl);
+            FetchResponse response = fetcher.fetch(FetchRequest.get(imageUrl)
+                    .header("Accept", "image/webp,image/apng,image/svg+xml,image/*,*/*;q=0.8")
+                    .header("Sec-Fetch-Dest", "image")
+                    .header("Sec-Fetch-Mode", "no-cors")
+                    .referrer(originOf(imageUrl)) // Use domain as referer
+                    .timeout(8000)
+                    .maxBodySize(MAX_IMAGE_BYTES));
+
+            if (response.getStatusCode() != 200) {
+                log.warn("HTTP {} for image: {}", response.getStatusCode(), imageUrl);
+                return null;
+            }
+            String contentType = response.getContentType();
+            if (contentType != null && !contentType.toLowerCase().startsWith("image/")) {
+                log.warn("Invalid content type for {}: {}", imageUrl, contentType);
+                return null;
+            }
+            if (response.isTruncated()) {
+                log.warn("Image too large: {}", imageUrl);
+                return null;
+            }
+
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(response.getBody()));
+            if (image == null || image.getWidth() <= 0 || image.getHeight() <= 0) {
+                log.warn("Failed to decode image: {}", imageUrl);
+                return null;
+            }
+            if (image.getWidth() < MIN_SIDE || image.getHeight() < MIN_SIDE) {
+                log.debug("Skipping small image: {}x{}", image.getWidth(), image.getHeight());
+                return null;
+            }
+
+            BufferedImage scaled = scaleToFit(image);
+            log.debug("Loaded image: {} ({}x{})", imageUrl, scaled.getWidth(), scaled.getHeight());
+            return new ImageIcon(scaled);
+        } catch (IOException e) {
+            log.warn("Error loading image {}: {}", imageUrl, e.getMessage());
+            return null;
+        }
+    }
+
+    // Scale here rather than with getScaledInstance, which defers the work to painting on the EDT
+    private static BufferedImage scaleToFit(BufferedImage image) {
+        double scale = Math.min((double) MAX_WIDTH / image.getWidth(), (double) MAX_HEIGHT / image.getHeight());
+        if (scale >= 1.0) {
+            return image;
+        }
+        int width = Math.max(1, (int) (image.getWidth() * scale));
+        int height = Math.max(1, (int) (image.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static String originOf(String imageUrl) {
+        int pathStart = imageUrl.indexOf('/', 8);
+        return pathStart > 0 ? imageUrl.substring(0, pathStart) : imageUrl;
+    }
+
+    /**
+     * Images are fetched as leniently as before: any certificate and host name is
+     * accepted, since a broken CDN certificate should not hide a picture. Built once
+     * and shared by every connection in the pool.
+     */
+    private static TlsStrategy lenientTls() {
+        TrustManager[] trustAll = {
+                new X509TrustManager() {
+                    public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
+                    public void checkClientTrusted(X509Certificate[] certs, String authType) {}
+                    public void checkServerTrusted(X509Certificate[] certs, String authType) {}
+                }
+        };
+        try {
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, trustAll, new SecureRandom());
+            ClientTlsStrategyBuilder builder = ClientTlsStrategyBuilder.create()
+                    .setSslContext(sslContext)
+                    .setHostnameVerifier(NoopHostnameVerifier.INSTANCE);
+            builder.setHostnameVerificationPolicy(HostnameVerificationPolicy.CLIENT);
+            return builder.build();
+        } catch (GeneralSecurityException e) {
+            log.warn("Lenient TLS setup failed, using default certificate checks: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        fetcher.close();
+    }
+}
@@ -0,0 +1,293 @@
+package com.webscraper.app.service;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Small pull parser for JSON text, enough to read JSON-LD blocks out of a page. The
+ * caller steps through tokens and names and reads only the values it wants; everything
+ * else is passed over by {@link #skipValue} without building strings or objects.
+ * Trailing commas are tolerated, since hand-written page markup often has them.
+ */
+final class JsonReader {
+
+    enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, LITERAL, END }
+
+    // What the innermost open container expects next
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final String in;
+    private int pos;
+    private int[] stack = new int[16];
+    private int depth = 1;
+    private Token peeked;
+
+    JsonReader(String json) {
+        this.in = json;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        int scope = stack[depth - 1];
+        if (scope == EMPTY_DOCUMENT) {
+            stack[depth - 1] = NONEMPTY_DOCUMENT;
+        } else if (scope == NONEMPTY_DOCUMENT) {
+            if (nextNonWhitespace() != -1) {
+                throw error("Unexpected content after the document");
+            }
+            return peeked = Token.END;
+        } else if (scope == EMPTY_OBJECT || scope == NONEMPTY_OBJECT) {
+            int c = nextNonWhitespace();
+            if (scope == NONEMPTY_OBJECT && c == ',') {
+                c = nextNonWhitespace();
+            } else if (scope == NONEMPTY_OBJECT && c != '}') {
+                throw error("Expected ',' or '}'");
+            }
+            if (c == '}') {
+                return peeked = Token.END_OBJECT;
+            }
+            if (c != '"') {
+                throw error("Expected a name");
+            }
+            stack[depth - 1] = DANGLING_NAME;
+            return peeked = Token.NAME;
+        } else if (scope == DANGLING_NAME) {
+            if (nextNonWhitespace() != ':') {
+                throw error("Expected ':'");
+            }
+            stack[depth - 1] = NONEMPTY_OBJECT;
+        } else {
+            int c = nextNonWhitespace();
+            if (scope == NONEMPTY_ARRAY && c == ',') {
+                c = nextNonWhitespace();
+            } else if (scope == NONEMPTY_ARRAY && c != ']') {
+                throw error("Expected ',' or ']'");
+            }
+            if (c == ']') {
+                return peeked = Token.END_ARRAY;
+            }
+            if (c == -1) {
+                throw error("Unexpected end of input");
+            }
+            pos--;
+            stack[depth - 1] = NONEMPTY_ARRAY;
+        }
+        return peeked = valueToken();
+    }
+
+    private Token valueToken() throws IOException {
+        int c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+            case 'f':
+            case 'n':
+                pos--;
+                return Token.LITERAL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    pos--;
+                    return Token.NUMBER;
+                }
+                throw error(c == -1 ? "Unexpected end of input" : "Unexpected character");
+        }
+    }
+
+    void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+    }
+
+    void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+    }
+
+    /** Whether the current object or array has another member */
+    boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END;
+    }
+
+    String nextName() throws IOException {
+        expect(Token.NAME);
+        return readString();
+    }
+
+    /** The next string value; numbers and literals are returned as their text */
+    String nextString() throws IOException {
+        Token token = peek();
+        if (token == Token.STRING) {
+            peeked = null;
+            return readString();
+        }
+        if (token == Token.NUMBER || token == Token.LITERAL) {
+            peeked = null;
+            int start = pos;
+            while (pos < in.length() && ",}] \t\r\n".indexOf(in.charAt(pos)) < 0) {
+                pos++;
+            }
+            return in.substring(start, pos);
+        }
+        throw error("Expected a string but was " + token);
+    }
+
+    /** Step over the next value, however deeply nested */
+    void skipValue() throws IOException {
+        int open = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    open++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    open++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    open--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    open--;
+                    break;
+                case NAME:
+                    peeked = null;
+                    skipString();
+                    break;
+                case STRING:
+                    peeked = null;
+                    skipString();
+                    break;
+                case NUMBER:
+                case LITERAL:
+                    nextString();
+                    break;
+                default:
+                    throw error("Unexpected end of input");
+            }
+        } while (open > 0);
+    }
+
+    private void expect(Token token) throws IOException {
+        if (peek() != token) {
+            throw error("Expected " + token + " but was " + peeked);
+        }
+        peeked = null;
+    }
+
+    private void push(int scope) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = scope;
+    }
+
+    private int nextNonWhitespace() {
+        while (pos < in.length()) {
+            char c = in.charAt(pos++);
+            if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    // Reads up to the closing quote; the opening one was consumed by peek
+    private String readString() throws IOException {
+        StringBuilder builder = null;
+        int start = pos;
+        while (pos < in.length()) {
+            char c = in.charAt(pos++);
+            if (c == '"') {
+                if (builder == null) {
+                    return in.substring(start, pos - 1);
+                }
+                return builder.append(in, start, pos - 1).toString();
+            }
+            if (c == '\\') {
+                if (builder == null) {
+                    builder = new StringBuilder();
+                }
+                builder.append(in, start, pos - 1).append(readEscape());
+                start = pos;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private void skipString() throws IOException {
+        while (pos < in.length()) {
+            char c = in.charAt(pos++);
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                pos++;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private char readEscape() throws IOException {
+        if (pos >= in.length()) {
+            throw error("Unterminated escape");
+        }
+        char c = in.charAt(pos++);
+        switch (c) {
+            case 'n':
+                return '\n';
+            case 't':
+                return '\t';
+            case 'r':
+                return '\r';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'u':
+                if (pos + 4 > in.length()) {
+                    throw error("Unterminated escape");
+                }
+                try {
+                    char decoded = (char) Integer.parseInt(in.substring(pos, pos + 4), 16);
+                    pos += 4;
+                    return decoded;
+                } catch (NumberFormatException e) {
+                    throw error("Bad unicode escape");
+                }
+            default:
+                return c; // \" \\ \/ and anything else stand for themselves
+        }
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " at offset " + pos);
+    }
+}
@@ -0,0 +1,192 @@
+package com.webscraper.app.service;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ranks a page's anchors by how likely they are to be article links, in a single walk
+ * of the DOM. Each anchor is scored from its ancestors: news containers (main,
+ * article, story and headline blocks), heading tags, story data attributes, and
+ * page chrome such as nav and footer, which counts against it. The weights follow
+ * the order of the old selector cascade, so the links it preferred still rank first.
+ */
+public class LinkCandidateScorer {
+
+    // Container class names and tags, weighted like the cascade's priority tiers
+    private static final Map<String, Integer> CONTAINER_WEIGHTS = Map.ofEntries(
+            Map.entry("main", 30), Map.entry("main-content", 30), Map.entry("content", 30),
+            Map.entry("article", 30), Map.entry("story", 30), Map.entry("news", 30),
+            Map.entry("headlines", 30), Map.entry("latest", 30),
+            Map.entry("story-card", 25), Map.entry("article-card", 25), Map.entry("news-item", 25),
+            Map.entry("headline", 25), Map.entry("story-headline", 25), Map.entry("article-title", 25),
+            Map.entry("post-title", 25), Map.entry("entry-title", 25),
+            Map.entry("title", 20));
+    private static final Set<String> NEWS_AREAS = Set.of(
+            "top-stories", "breaking-news", "latest-news", "featured", "trending", "popular",
+            "homepage", "front-page");
+    private static final Set<String> CHROME_CLASSES = Set.of(
+            "nav", "navbar", "navigation", "menu", "footer", "sidebar", "social", "share", "breadcrumb", "cookie");
+
+    private static final int HEADING_WEIGHT = 20;
+    private static final int DATA_ATTRIBUTE_WEIGHT = 20;
+    private static final int NEWS_AREA_WEIGHT = 10;
+    private static final int CHROME_PENALTY = -40;
+    private static final int HEADLINE_TEXT_WEIGHT = 10;
+    private static final int NO_TEXT_PENALTY = -10;
+
+    /** An anchor and its score; higher is more article-like */
+    public static class Candidate {
+        private final Element anchor;
+        private final int score;
+
+        Candidate(Element anchor, int score) {
+            this.anchor = anchor;
+            this.score = score;
+        }
+
+        public Element getAnchor() { return anchor; }
+        public int getScore() { return score; }
+    }
+
+    /**
+     * Score every anchor under root and return them best first; ties keep document
+     * order. Anchors count if they carry href, data-href or data-link.
+     */
+    public List<Candidate> rank(Element root) {
+        Visitor visitor = new Visitor();
+        NodeTraversor.traverse(visitor, root);
+        List<Candidate> candidates = visitor.candidates;
+        candidates.sort(Comparator.comparingInt(Candidate::getScore).reversed());
+        return candidates;
+    }
+
+    private static class Visitor implements NodeVisitor {
+        final List<Candidate> candidates = new ArrayList<>();
+        // Context per open element: best container weight, heading, data attribute, news area, chrome
+        private int[] container = new int[64];
+        private boolean[] heading = new boolean[64];
+        private boolean[] dataAttribute = new boolean[64];
+        private boolean[] newsArea = new boolean[64];
+        private boolean[] chrome = new boolean[64];
+        private int top = -1;
+
+        @Override
+        public void head(Node node, int depth) {
+            if (!(node instanceof Element)) {
+                return;
+            }
+            Element element = (Element) node;
+            push(element);
+            if (element.normalName().equals("a")
+                    && (element.hasAttr("href") || element.hasAttr("data-href") || element.hasAttr("data-link"))) {
+                candidates.add(new Candidate(element, score(element)));
+            }
+        }
+
+        @Override
+        public void tail(Node node, int depth) {
+            if (node instanceof Element) {
+                top--;
+            }
+        }
+
+        // Scores use the context of the anchor's ancestors, not the anchor itself
+        private int score(Element anchor) {
+            int parent = top - 1;
+            if (parent < 0) {
+                return 0;
+            }
+            int score = container[parent];
+            if (heading[parent]) {
+                score += HEADING_WEIGHT;
+            }
+            if (dataAttribute[parent]) {
+                score += DATA_ATTRIBUTE_WEIGHT;
+            }
+            if (newsArea[parent]) {
+                score += NEWS_AREA_WEIGHT;
+            }
+            if (chrome[parent]) {
+                score += CHROME_PENALTY;
+            }
+            String text = anchor.text();
+            if (text.length() >= 25) {
+                score += HEADLINE_TEXT_WEIGHT; // Headlines are long; menu items are short
+            } else if (text.isEmpty() && anchor.attr("title").isEmpty()) {
+                score += NO_TEXT_PENALTY;
+            }
+            return score;
+        }
+
+        private void push(Element element) {
+            int parent = top;
+            top++;
+            if (top == container.length) {
+                grow();
+            }
+            int best = parent >= 0 ? container[parent] : 0;
+            boolean inHeading = parent >= 0 && heading[parent];
+            boolean inData = parent >= 0 && dataAttribute[parent];
+            boolean inArea = parent >= 0 && newsArea[parent];
+            boolean inChrome = parent >= 0 && chrome[parent];
+
+            String tag = element.normalName();
+            if (tag.equals("main") || tag.equals("article")) {
+                best = Math.max(best, CONTAINER_WEIGHTS.get(tag));
+            } else if (tag.equals("h1") || tag.equals("h2") || tag.equals("h3")) {
+                inHeading = true;
+            } else if (tag.equals("nav") || tag.equals("aside")) {
+                inChrome = true;
+            } else if ((tag.equals("header") || tag.equals("footer")) && best == 0) {
+                inChrome = true; // An article's own header holds its headline link
+            }
+            if (element.attributesSize() > 0) {
+                if (element.attr("role").equals("main")) {
+                    best = Math.max(best, 30);
+                }
+                if (element.attr("data-module").equals("story") || element.attr("data-component").equals("headline")) {
+                    inData = true;
+                }
+                String classes = element.className();
+                if (!classes.isEmpty()) {
+                    for (String name : classes.split("\\s+")) {
+                        Integer weight = CONTAINER_WEIGHTS.get(name);
+                        if (weight != null) {
+                            best = Math.max(best, weight);
+                        }
+                        if (NEWS_AREAS.contains(name)) {
+                            inArea = true;
+                        }
+                        if (CHROME_CLASSES.contains(name)) {
+                            inChrome = true;
+                        }
+                    }
+                }
+            }
+
+            container[top] = best;
+            heading[top] = inHeading;
+            dataAttribute[top] = inData;
+            newsArea[top] = inArea;
+            chrome[top] = inChrome;
+        }
+
+        private void grow() {
+            int size = container.length * 2;
+            container = Arrays.copyOf(container, size);
+            heading = Arrays.copyOf(heading, size);
+            dataAttribute = Arrays.copyOf(dataAttribute, size);
+            newsArea = Arrays.copyOf(newsArea, size);
+            chrome = Arrays.copyOf(chrome, size);
+        }
+    }
+}
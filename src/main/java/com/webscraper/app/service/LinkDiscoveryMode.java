@@ -0,0 +1,26 @@
+package com.webscraper.app.service;
+
+/**
+ * How {@link WebScraperService#extractLinks(String, LinkDiscoveryMode)} finds article links.
+ */
+public enum LinkDiscoveryMode {
+    /** Download and parse the whole page, then rank its links in one pass over it */
+    PAGE("Full page"),
+    /** Parse while downloading and stop reading once enough links are found */
+    STREAMING("Streaming"),
+    /** Read the sitemaps listed in robots.txt, newest entries first */
+    SITEMAP("Sitemap"),
+    /** Read the site's RSS or Atom feed, or the feed URL itself */
+    FEED("RSS/Atom feed");
+
+    private final String label;
+
+    LinkDiscoveryMode(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,112 @@
+package com.webscraper.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Speculatively loads the pages a user is likely to open next, so that selecting one
+ * finds it already fetched and parsed. Work runs one page at a time on a single
+ * minimum-priority thread and goes through the normal fetch path, so it obeys the
+ * per-host limits and never takes more than one of a host's slots. A new batch or a
+ * user selection cancels outstanding prefetches immediately.
+ */
+public class LinkPrefetcher implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(LinkPrefetcher.class);
+
+    public static final int DEFAULT_PREFETCH_COUNT = 3;
+
+    public interface PageWarmer {
+        void warm(String url) throws IOException;
+    }
+
+    private final PageWarmer warmer;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "link-prefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    // url -> queued or running prefetch, in submission order
+    private final Map<String, Future<?>> tasks = new LinkedHashMap<>();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    LinkPrefetcher(PageWarmer warmer) {
+        this.warmer = warmer;
+    }
+
+    /** Replace any outstanding prefetches with the given URLs, warmed in order */
+    public synchronized void prefetch(List<String> urls) {
+        cancelAll();
+        for (String url : urls) {
+            if (!tasks.containsKey(url)) {
+                tasks.put(url, worker.submit(() -> warm(url)));
+            }
+        }
+    }
+
+    /**
+     * Cancel everything except the URL the user just picked; if that one is already
+     * loading, the user's request joins it instead of starting over.
+     */
+    public synchronized void cancelAllExcept(String url) {
+        Iterator<Map.Entry<String, Future<?>>> entries = tasks.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Future<?>> entry = entries.next();
+            if (!entry.getKey().equals(url)) {
+                cancel(entry.getValue());
+                entries.remove();
+            }
+        }
+    }
+
+    public synchronized void cancelAll() {
+        tasks.values().forEach(this::cancel);
+        tasks.clear();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getCancelledCount() {
+        return cancelled.get();
+    }
+
+    private void cancel(Future<?> task) {
+        if (task.cancel(true)) {
+            cancelled.incrementAndGet();
+        }
+    }
+
+    private void warm(String url) {
+        try {
+            warmer.warm(url);
+            completed.incrementAndGet();
+            log.debug("Prefetched: {}", url);
+        } catch (InterruptedIOException e) {
+            // Cancelled by a newer selection
+        } catch (IOException e) {
+            log.debug("Prefetch failed for {}: {}", url, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        worker.shutdownNow();
+    }
+}
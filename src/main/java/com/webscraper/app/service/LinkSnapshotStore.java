@@ -0,0 +1,199 @@
+package com.webscraper.app.service;
+
+import com.webscraper.app.dto.LinkItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers which links each seed page showed on earlier scrapes, so monitoring can
+ * ask for just the links that appeared since. A seed's snapshot is its links'
+ * {@link UrlCanonicalizer#fingerprint}s with the time each was first seen, 16 bytes
+ * per link in memory and on disk, one file per seed. The oldest links are dropped
+ * once a seed holds more than the configured number.
+ */
+public class LinkSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LinkSnapshotStore.class);
+
+    public static final int DEFAULT_MAX_LINKS_PER_SEED = 5000;
+
+    private static final long MAGIC = 0x4c494e4b534e4131L; // "LINKSNA1"
+
+    private final Path directory;
+    private final int maxLinksPerSeed;
+    private final Map<Long, Snapshot> snapshots = new HashMap<>();
+
+    public LinkSnapshotStore() {
+        this(Paths.get(System.getProperty("user.home"), ".web-scraper", "link-snapshots"), DEFAULT_MAX_LINKS_PER_SEED);
+    }
+
+    /** @param directory where snapshots are kept; null to keep them in memory only */
+    public LinkSnapshotStore(Path directory, int maxLinksPerSeed) {
+        if (maxLinksPerSeed < 1) {
+            throw new IllegalArgumentException("maxLinksPerSeed must be positive: " + maxLinksPerSeed);
+        }
+        this.directory = directory;
+        this.maxLinksPerSeed = maxLinksPerSeed;
+    }
+
+    /**
+     * Record the links just found on the seed and return those it did not show on any
+     * earlier scrape, in their original order. On a seed's first scrape every link is new.
+     */
+    public synchronized List<LinkItem> diff(String seed, List<LinkItem> links) {
+        Snapshot snapshot = snapshot(seed);
+        long now = System.currentTimeMillis();
+        List<LinkItem> fresh = new ArrayList<>();
+        for (LinkItem link : links) {
+            if (snapshot.add(UrlCanonicalizer.fingerprint(link.getUrl()), now)) {
+                fresh.add(link);
+            }
+        }
+        if (!fresh.isEmpty()) {
+            snapshot.trimTo(maxLinksPerSeed);
+            save(seed, snapshot);
+        }
+        return fresh;
+    }
+
+    /** When the seed first showed the link, or null if it never has */
+    public synchronized Instant getFirstSeen(String seed, String url) {
+        long millis = snapshot(seed).firstSeen(UrlCanonicalizer.fingerprint(url));
+        return millis < 0 ? null : Instant.ofEpochMilli(millis);
+    }
+
+    /** Links remembered for the seed */
+    public synchronized int size(String seed) {
+        return snapshot(seed).size;
+    }
+
+    /** Forget the seed, so its next scrape counts every link as new */
+    public synchronized void clear(String seed) {
+        snapshots.put(seedKey(seed), new Snapshot());
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(file(seed));
+            } catch (IOException e) {
+                log.warn("Could not delete link snapshot for {}: {}", seed, e.getMessage());
+            }
+        }
+    }
+
+    private static long seedKey(String seed) {
+        return UrlCanonicalizer.fingerprint(seed);
+    }
+
+    private Path file(String seed) {
+        return directory.resolve(Long.toHexString(seedKey(seed)) + ".snapshot");
+    }
+
+    private Snapshot snapshot(String seed) {
+        return snapshots.computeIfAbsent(seedKey(seed), key -> load(seed));
+    }
+
+    private Snapshot load(String seed) {
+        Snapshot snapshot = new Snapshot();
+        if (directory == null || !Files.exists(file(seed))) {
+            return snapshot;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file(seed))))) {
+            if (in.readLong() != MAGIC) {
+                throw new IOException("not a link snapshot");
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                snapshot.add(in.readLong(), in.readLong());
+            }
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable link snapshot for {}: {}", seed, e.getMessage());
+            return new Snapshot();
+        }
+        return snapshot;
+    }
+
+    private void save(String seed, Snapshot snapshot) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, "snapshot", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeLong(MAGIC);
+                out.writeInt(snapshot.size);
+                for (int i = 0; i < snapshot.size; i++) {
+                    out.writeLong(snapshot.fingerprints[i]);
+                    out.writeLong(snapshot.firstSeen[i]);
+                }
+            }
+            Files.move(tmp, file(seed), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not save link snapshot for {}: {}", seed, e.getMessage());
+        }
+    }
+
+    // A seed's links in first-seen order, with a fingerprint index for lookups
+    private static final class Snapshot {
+        long[] fingerprints = new long[16];
+        long[] firstSeen = new long[16];
+        int size;
+        FingerprintSet index = new FingerprintSet();
+
+        boolean add(long fingerprint, long seenAt) {
+            if (!index.add(fingerprint)) {
+                return false;
+            }
+            if (size == fingerprints.length) {
+                fingerprints = Arrays.copyOf(fingerprints, size * 2);
+                firstSeen = Arrays.copyOf(firstSeen, size * 2);
+            }
+            fingerprints[size] = fingerprint;
+            firstSeen[size] = seenAt;
+            size++;
+            return true;
+        }
+
+        long firstSeen(long fingerprint) {
+            if (!index.contains(fingerprint)) {
+                return -1;
+            }
+            for (int i = 0; i < size; i++) {
+                if (fingerprints[i] == fingerprint) {
+                    return firstSeen[i];
+                }
+            }
+            return -1;
+        }
+
+        // Drop the oldest links; FingerprintSet cannot remove, so the index is rebuilt
+        void trimTo(int maxSize) {
+            if (size <= maxSize) {
+                return;
+            }
+            int drop = size - maxSize;
+            System.arraycopy(fingerprints, drop, fingerprints, 0, maxSize);
+            System.arraycopy(firstSeen, drop, firstSeen, 0, maxSize);
+            size = maxSize;
+            index = new FingerprintSet(maxSize);
+            for (int i = 0; i < size; i++) {
+                index.add(fingerprints[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.webscraper.app.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton for finding many fixed substrings in one pass. Patterns
+ * are added in numbered groups (up to 32), and a scan reports which groups occur
+ * anywhere in the text. Matching ignores ASCII case; patterns must be ASCII.
+ * Built once, the matcher is immutable and safe to share between threads.
+ */
+final class MultiPatternMatcher {
+
+    private static final int ASCII = 128;
+
+    private final int[] charClass;   // ASCII char -> alphabet index, 0 = not in any pattern
+    private final int alphabetSize;
+    private final int[] transitions; // state * alphabetSize + class -> next state
+    private final int[] outputs;     // state -> mask of groups ending here (incl. via failure links)
+
+    private MultiPatternMatcher(int[] charClass, int alphabetSize, int[] transitions, int[] outputs) {
+        this.charClass = charClass;
+        this.alphabetSize = alphabetSize;
+        this.transitions = transitions;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Mask of the groups that occur in text. Scanning stops early once any group in
+     * stopMask has been seen.
+     */
+    int match(CharSequence text, int stopMask) {
+        int state = 0;
+        int found = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            int cls = c < ASCII ? charClass[c] : 0;
+            state = transitions[state * alphabetSize + cls];
+            found |= outputs[state];
+            if ((found & stopMask) != 0) {
+                return found;
+            }
+        }
+        return found;
+    }
+
+    int match(CharSequence text) {
+        return match(text, 0);
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static final class Builder {
+        private final List<String> patterns = new ArrayList<>();
+        private final List<Integer> groups = new ArrayList<>();
+
+        /** Add patterns to group (0-31); a group matches if any of its patterns occurs */
+        Builder add(int group, Collection<String> groupPatterns) {
+            if (group < 0 || group > 31) {
+                throw new IllegalArgumentException("Group must be between 0 and 31: " + group);
+            }
+            for (String pattern : groupPatterns) {
+                if (pattern.isEmpty()) {
+                    throw new IllegalArgumentException("Empty pattern in group " + group);
+                }
+                for (int i = 0; i < pattern.length(); i++) {
+                    if (pattern.charAt(i) >= ASCII) {
+                        throw new IllegalArgumentException("Pattern is not ASCII: " + pattern);
+                    }
+                }
+                patterns.add(pattern.toLowerCase(Locale.ROOT));
+                groups.add(group);
+            }
+            return this;
+        }
+
+        MultiPatternMatcher build() {
+            // Alphabet: only characters that occur in some pattern get their own column
+            int[] charClass = new int[ASCII];
+            int alphabetSize = 1;
+            for (String pattern : patterns) {
+                for (int i = 0; i < pattern.length(); i++) {
+                    char c = pattern.charAt(i);
+                    if (charClass[c] == 0) {
+                        charClass[c] = alphabetSize++;
+                    }
+                }
+            }
+
+            // Trie; -1 marks a missing edge until failure links fill it in
+            List<int[]> edges = new ArrayList<>();
+            List<Integer> outputs = new ArrayList<>();
+            edges.add(newRow(alphabetSize));
+            outputs.add(0);
+            for (int p = 0; p < patterns.size(); p++) {
+                String pattern = patterns.get(p);
+                int state = 0;
+                for (int i = 0; i < pattern.length(); i++) {
+                    int cls = charClass[pattern.charAt(i)];
+                    if (edges.get(state)[cls] == -1) {
+                        edges.get(state)[cls] = edges.size();
+                        edges.add(newRow(alphabetSize));
+                        outputs.add(0);
+                    }
+                    state = edges.get(state)[cls];
+                }
+                outputs.set(state, outputs.get(state) | (1 << groups.get(p)));
+            }
+
+            // Breadth-first: complete the transition table into a DFA and merge outputs
+            int states = edges.size();
+            int[] transitions = new int[states * alphabetSize];
+            int[] output = new int[states];
+            int[] failure = new int[states];
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int cls = 0; cls < alphabetSize; cls++) {
+                int next = edges.get(0)[cls];
+                if (next == -1) {
+                    transitions[cls] = 0;
+                } else {
+                    transitions[cls] = next;
+                    failure[next] = 0;
+                    queue.add(next);
+                }
+            }
+            output[0] = outputs.get(0);
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                output[state] = outputs.get(state) | output[failure[state]];
+                for (int cls = 0; cls < alphabetSize; cls++) {
+                    int next = edges.get(state)[cls];
+                    if (next == -1) {
+                        transitions[state * alphabetSize + cls] = transitions[failure[state] * alphabetSize + cls];
+                    } else {
+                        transitions[state * alphabetSize + cls] = next;
+                        failure[next] = transitions[failure[state] * alphabetSize + cls];
+                        queue.add(next);
+                    }
+                }
+            }
+            return new MultiPatternMatcher(charClass, alphabetSize, transitions, output);
+        }
+
+        private static int[] newRow(int size) {
+            int[] row = new int[size];
+            Arrays.fill(row, -1);
+            return row;
+        }
+    }
+}
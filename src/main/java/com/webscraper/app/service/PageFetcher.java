@@ -0,0 +1,12 @@
+package com.webscraper.app.service;
+
+import java.io.IOException;
+
+/**
+ * A fetch that already honours per-host politeness and the response cache; handed to
+ * helpers so they share the service's fetch path instead of building their own.
+ */
+@FunctionalInterface
+interface PageFetcher {
+    FetchResponse fetch(FetchRequest request) throws IOException;
+}
@@ -0,0 +1,134 @@
+package com.webscraper.app.service;
+
+import java.text.Format;
+import java.text.ParsePosition;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the publish date a page gives, in whatever form, into an {@link Instant}. The
+ * formats are compiled once and tried in order; a site writes all its dates the same
+ * way, so the format that worked last time for a host is tried first and the rest only
+ * when it fails. Dates without a zone are taken as UTC, and dates without a time as
+ * the start of the day.
+ */
+public class PublishDateNormalizer {
+
+    // Labels and ordinal suffixes around the date itself
+    private static final Pattern LABEL = Pattern.compile(
+            "(?i)^(published|updated|posted|last updated|first published|date)\\s*(on|at)?\\s*:?\\s*");
+    private static final Pattern ORDINAL = Pattern.compile("(?i)(?<=\\d)(st|nd|rd|th)\\b");
+    private static final Pattern ABBREVIATION_DOT = Pattern.compile("(?<=[A-Za-z]{3})\\.");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    // Unambiguous forms first; of the slashed forms, month-first is tried before day-first
+    private static final Format[] FORMATS = {
+            DateTimeFormatter.ISO_DATE_TIME.toFormat(),
+            format("uuuu-MM-dd'T'HH:mm[:ss][.SSS]xx"),
+            format("uuuu-MM-dd[ HH:mm[:ss]][ xxx][ z]"),
+            DateTimeFormatter.RFC_1123_DATE_TIME.toFormat(),
+            format("[EEEE, ][EEE, ]MMMM d, uuuu[ 'at'][ h:mm[:ss] a][ HH:mm][ z]"),
+            format("[EEEE, ][EEE, ]MMM d, uuuu[ 'at'][ h:mm[:ss] a][ HH:mm][ z]"),
+            format("[EEEE ][EEE ]d MMMM uuuu[ 'at'][,][ HH:mm[:ss]][ h:mm a][ z]"),
+            format("[EEEE ][EEE ]d MMM uuuu[ 'at'][,][ HH:mm[:ss]][ h:mm a][ z]"),
+            format("uuuu/MM/dd[ HH:mm[:ss]]"),
+            format("M/d/uuuu[ h:mm a][ HH:mm]"),
+            format("d/M/uuuu[ HH:mm]"),
+            format("d.M.uuuu[ HH:mm]")
+    };
+
+    // host -> index into FORMATS of the format that last worked
+    private final Map<String, Integer> remembered = new ConcurrentHashMap<>();
+
+    // Strict, so that February 30th is refused rather than read as the 29th
+    private static Format format(String pattern) {
+        return new DateTimeFormatterBuilder()
+                .parseCaseInsensitive()
+                .appendPattern(pattern)
+                .toFormatter(Locale.ENGLISH)
+                .withResolverStyle(ResolverStyle.STRICT)
+                .toFormat();
+    }
+
+    /**
+     * The instant the raw date names, or null if it is missing or in no known format.
+     * @param host the page's host, whose last working format is tried first; may be null
+     */
+    public Instant normalize(String raw, String host) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        String text = clean(raw);
+        Integer last = host != null ? remembered.get(host) : null;
+        if (last != null) {
+            Instant instant = parse(text, FORMATS[last]);
+            if (instant != null) {
+                return instant;
+            }
+        }
+        for (int i = 0; i < FORMATS.length; i++) {
+            if (last != null && i == last) {
+                continue; // Already failed above
+            }
+            Instant instant = parse(text, FORMATS[i]);
+            if (instant != null) {
+                if (host != null) {
+                    remembered.put(host, i);
+                }
+                return instant;
+            }
+        }
+        return null;
+    }
+
+    private static String clean(String raw) {
+        String text = raw.trim();
+        if (!hasWords(text)) {
+            return text; // Machine formats need no cleaning
+        }
+        text = SPACES.matcher(text).replaceAll(" ");
+        text = LABEL.matcher(text).replaceFirst("");
+        if (text.indexOf('.') >= 0) {
+            text = ABBREVIATION_DOT.matcher(text).replaceAll(""); // "Jan." reads as "Jan"
+        }
+        return ORDINAL.matcher(text).replaceAll("");
+    }
+
+    // Letters other than the T and Z of ISO dates
+    private static boolean hasWords(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetter(c) && c != 'T' && c != 'Z') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Instant parse(String text, Format format) {
+        // Parses and resolves in one pass, and fails with null rather than an exception
+        ParsePosition position = new ParsePosition(0);
+        TemporalAccessor parsed = (TemporalAccessor) format.parseObject(text, position);
+        if (parsed == null || position.getIndex() != text.length()) {
+            return null;
+        }
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        ZoneId zone = parsed.query(TemporalQueries.zone());
+        return ZonedDateTime.of(date, time != null ? time : LocalTime.MIDNIGHT, zone != null ? zone : ZoneOffset.UTC)
+                .toInstant();
+    }
+}
@@ -0,0 +1,416 @@
+package com.webscraper.app.service;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Finds an article's body by scoring blocks instead of trying selectors, in the
+ * manner of Readability. One walk of the DOM measures every element's text and link
+ * text; each paragraph with real text scores its parent fully and its grandparent by
+ * half, favoring long, comma-rich prose, and a candidate's total is discounted by its
+ * link density. The best container, plus siblings that score nearly as well, becomes
+ * the article. Scripts, navigation, forms and blocks named like comments, sharing,
+ * related stories or cookie banners are left out of the count entirely. The same
+ * walk notes the first byline. Given a {@link BoilerplateFilter}, blocks the site
+ * repeats on its other pages are dropped from the text. The Document is only read,
+ * never modified, so cached Documents can be passed in directly.
+ */
+public class ReadabilityExtractor {
+
+    private static final Set<String> SKIPPED_TAGS = Set.of(
+            "head", "script", "style", "noscript", "template", "svg", "nav", "footer", "aside",
+            "form", "button", "select", "iframe", "object", "dialog");
+    private static final Set<String> PARAGRAPH_TAGS = Set.of("p", "pre", "blockquote", "td", "li", "dd");
+    private static final Set<String> HEADING_TAGS = Set.of("h2", "h3", "h4");
+
+    // Class and id name groups
+    private static final int ALWAYS_SKIP = 1;
+    private static final int SKIP_UNLESS_CONTENT = 1 << 1;
+    private static final int CONTENT = 1 << 2;
+    private static final int BYLINE = 1 << 3;
+    // Names match anywhere in a class; ALWAYS_SKIP gives way only to a content name in a
+    // class of its own, as on WordPress posts tagged "tag-social-media"
+    private static final MultiPatternMatcher NAME_MATCHER = MultiPatternMatcher.builder()
+            .add(0, List.of("comment", "cookie", "consent", "newsletter", "subscribe", "social",
+                    "related", "recommend", "advert", "sponsor", "outbrain", "taboola",
+                    "most-read", "trending", "popup", "breadcrumb"))
+            // Also seen on article containers (WordPress tags posts "tag-promo"), so a content name wins
+            .add(1, List.of("sidebar", "menu", "footer", "banner", "masthead", "widget", "toolbar",
+                    "share", "promo"))
+            .add(2, List.of("article", "body", "content", "entry", "main", "post", "story", "text", "blog"))
+            .add(3, List.of("byline", "author", "writer"))
+            .build();
+
+    private static final int MIN_PARAGRAPH_CHARS = 25;
+    private static final int MIN_ARTICLE_CHARS = 140;
+    private static final int MAX_BYLINE_CHARS = 100;
+    private static final double CLASS_WEIGHT = 25;
+    private static final double MAX_LINK_DENSITY = 0.5;
+    private static final Pattern BYLINE_PREFIX = Pattern.compile("(?i)^(by|author|written by):?\\s*");
+
+    private final UrlClassifier urlClassifier;
+    private final BoilerplateFilter boilerplate;
+
+    public ReadabilityExtractor(UrlClassifier urlClassifier) {
+        this(urlClassifier, null);
+    }
+
+    /** @param boilerplate drops blocks the page's site repeats on every page; null to keep them */
+    public ReadabilityExtractor(UrlClassifier urlClassifier, BoilerplateFilter boilerplate) {
+        this.urlClassifier = urlClassifier;
+        this.boilerplate = boilerplate;
+    }
+
+    /** What was found; an empty text means no block looked like an article */
+    public static final class Result {
+        private final String text;
+        private final List<String> imageUrls;
+        private final String byline;
+
+        Result(String text, List<String> imageUrls, String byline) {
+            this.text = text;
+            this.imageUrls = imageUrls;
+            this.byline = byline;
+        }
+
+        /** Paragraphs of the article body separated by blank lines, or empty */
+        public String getText() { return text; }
+        /** Content images inside the article body, in document order */
+        public List<String> getImageUrls() { return imageUrls; }
+        /** The author named in the page's byline, or null */
+        public String getByline() { return byline; }
+        public boolean isEmpty() { return text.isEmpty(); }
+    }
+
+    /** A byline without its "By" or "Written by:" prefix, trimmed */
+    static String cleanByline(String text) {
+        return BYLINE_PREFIX.matcher(text.trim()).replaceAll("").trim();
+    }
+
+    public Result extract(Document doc, int maxImages) {
+        return extract(doc, maxImages, null);
+    }
+
+    /** Extract, letting alongside see every node of the page on the same walk */
+    Result extract(Document doc, int maxImages, NodeVisitor alongside) {
+        Visitor visitor = new Visitor();
+        NodeTraversor.traverse(alongside == null ? visitor : new NodeVisitor() {
+            @Override
+            public void head(Node node, int depth) {
+                visitor.head(node, depth);
+                alongside.head(node, depth);
+            }
+
+            @Override
+            public void tail(Node node, int depth) {
+                visitor.tail(node, depth);
+                alongside.tail(node, depth);
+            }
+        }, doc);
+
+        String byline = visitor.byline;
+        if (byline == null) {
+            Element meta = doc.head() != null ? doc.head().selectFirst("meta[name=author]") : null;
+            if (meta != null && !meta.attr("content").isBlank()) {
+                byline = meta.attr("content").trim();
+            }
+        }
+
+        Element best = visitor.best;
+        if (best == null || visitor.stats.get(best).text < MIN_ARTICLE_CHARS) {
+            return new Result("", List.of(), byline);
+        }
+
+        List<String> blocks = new ArrayList<>();
+        Set<String> images = new LinkedHashSet<>();
+        for (Element root : articleRoots(best, visitor)) {
+            collect(root, visitor.stats, blocks, images, maxImages);
+        }
+        if (boilerplate != null) {
+            blocks = boilerplate.filter(doc.location(), blocks, MIN_ARTICLE_CHARS);
+        }
+        return new Result(String.join("\n\n", blocks).trim(), new ArrayList<>(images), byline);
+    }
+
+    // The winner and its siblings that are nearly as good or are solid paragraphs themselves
+    private static List<Element> articleRoots(Element best, Visitor visitor) {
+        Element parent = best.parent();
+        if (parent == null) {
+            return List.of(best);
+        }
+        double threshold = Math.max(10, visitor.bestScore * 0.2);
+        List<Element> roots = new ArrayList<>();
+        for (Element sibling : parent.children()) {
+            Stats stats = visitor.stats.get(sibling);
+            if (sibling == best) {
+                roots.add(sibling);
+            } else if (stats != null && !stats.skipped
+                    && ((stats.candidate && stats.finalScore >= threshold)
+                    || (stats.paragraph && stats.text >= 80 && stats.linkDensity() < 0.25))) {
+                roots.add(sibling);
+            }
+        }
+        return roots;
+    }
+
+    // Paragraph and heading blocks and content images under root, in document order
+    private void collect(Element root, Map<Element, Stats> stats, List<String> blocks, Set<String> images,
+                         int maxImages) {
+        NodeTraversor.filter(new NodeFilter() {
+            @Override
+            public FilterResult head(Node node, int depth) {
+                if (!(node instanceof Element)) {
+                    return FilterResult.SKIP_ENTIRELY;
+                }
+                Element element = (Element) node;
+                Stats block = stats.get(element);
+                if (block == null || block.skipped) {
+                    return FilterResult.SKIP_ENTIRELY;
+                }
+                if (element.normalName().equals("img")) {
+                    addImage(element, images, maxImages);
+                    return FilterResult.SKIP_ENTIRELY;
+                }
+                boolean heading = HEADING_TAGS.contains(element.normalName());
+                if ((block.paragraph || heading) && block.linkDensity() <= MAX_LINK_DENSITY
+                        && (heading || block.text >= MIN_PARAGRAPH_CHARS)) {
+                    blocks.add(element.text());
+                    for (Element img : element.getElementsByTag("img")) {
+                        addImage(img, images, maxImages);
+                    }
+                    return FilterResult.SKIP_CHILDREN;
+                }
+                return FilterResult.CONTINUE;
+            }
+
+            @Override
+            public FilterResult tail(Node node, int depth) {
+                return FilterResult.CONTINUE;
+            }
+        }, root);
+    }
+
+    private void addImage(Element img, Set<String> images, int maxImages) {
+        if (images.size() >= maxImages) {
+            return;
+        }
+        String src = img.attr("abs:src");
+        String parentClass = img.parent() != null ? img.parent().attr("class") : "";
+        if (!src.isEmpty() && urlClassifier.isContentImageUrl(src)
+                && urlClassifier.isNewsImage(img.attr("alt"), img.attr("class"), parentClass)) {
+            images.add(src);
+        }
+    }
+
+    // Measurements of one element, kept for the elements the output walk may visit
+    private static final class Stats {
+        int text;
+        int linkText;
+        int commas;
+        boolean skipped;
+        boolean paragraph;
+        boolean candidate;
+        double score;
+        double finalScore;
+
+        double linkDensity() {
+            return text == 0 ? 0 : (double) linkText / text;
+        }
+    }
+
+    private static final class Visitor implements NodeVisitor {
+        final Map<Element, Stats> stats = new IdentityHashMap<>();
+        Element best;
+        double bestScore;
+        String byline;
+        // Per open element: its stats, whether it sits inside a link, and its name groups
+        private Stats[] open = new Stats[64];
+        private boolean[] inLink = new boolean[64];
+        private int[] names = new int[64];
+        private int top = -1;
+
+        @Override
+        public void head(Node node, int depth) {
+            if (node instanceof TextNode) {
+                if (top >= 0 && !open[top].skipped) {
+                    String text = ((TextNode) node).text();
+                    int length = text.isBlank() ? 0 : text.trim().length();
+                    Stats stats = open[top];
+                    stats.text += length;
+                    if (inLink[top]) {
+                        stats.linkText += length;
+                    }
+                    stats.commas += count(text, ',');
+                }
+                return;
+            }
+            if (!(node instanceof Element)) {
+                return;
+            }
+            Element element = (Element) node;
+            int parent = top;
+            top++;
+            if (top == open.length) {
+                grow();
+            }
+
+            String tag = element.normalName();
+            int found = 0;
+            if (element.attributesSize() > 0) {
+                String classes = element.className();
+                String id = element.id();
+                found = (classes.isEmpty() ? 0 : NAME_MATCHER.match(classes))
+                        | (id.isEmpty() ? 0 : NAME_MATCHER.match(id));
+            }
+
+            Stats stats = new Stats();
+            stats.skipped = (parent >= 0 && open[parent].skipped)
+                    || SKIPPED_TAGS.contains(tag)
+                    || ((found & ALWAYS_SKIP) != 0 && ((found & CONTENT) == 0 || !hasContentClass(element)))
+                    || ((found & SKIP_UNLESS_CONTENT) != 0 && (found & CONTENT) == 0)
+                    || (element.attributesSize() > 0 && (element.hasAttr("hidden")
+                    || element.attr("aria-hidden").equals("true")));
+            stats.paragraph = PARAGRAPH_TAGS.contains(tag);
+            open[top] = stats;
+            inLink[top] = tag.equals("a") || (parent >= 0 && inLink[parent]);
+            names[top] = found;
+            this.stats.put(element, stats);
+
+            if (byline == null && !stats.skipped && isByline(element, found)) {
+                String text = cleanByline(element.text());
+                if (!text.isEmpty() && text.length() <= MAX_BYLINE_CHARS) {
+                    byline = text;
+                }
+            }
+        }
+
+        @Override
+        public void tail(Node node, int depth) {
+            if (!(node instanceof Element)) {
+                return;
+            }
+            Element element = (Element) node;
+            Stats stats = open[top];
+            int found = names[top];
+            top--;
+            if (stats.skipped) {
+                return;
+            }
+            if (top >= 0) {
+                Stats parent = open[top];
+                parent.text += stats.text;
+                parent.linkText += stats.linkText;
+                parent.commas += stats.commas;
+            }
+
+            if (stats.paragraph && stats.text >= MIN_PARAGRAPH_CHARS) {
+                double score = 1 + stats.commas + Math.min(3, stats.text / 100);
+                Element parent = element.parent();
+                if (parent != null) {
+                    addScore(parent, score);
+                    Element grandparent = parent.parent();
+                    if (grandparent != null) {
+                        addScore(grandparent, score / 2);
+                    }
+                }
+            }
+
+            // Every child has been seen, so a candidate's score and link density are final
+            if (stats.candidate) {
+                double weight = (found & CONTENT) != 0 ? CLASS_WEIGHT : 0;
+                if ((found & SKIP_UNLESS_CONTENT) != 0) {
+                    weight -= CLASS_WEIGHT;
+                }
+                stats.finalScore = (stats.score + tagWeight(element.normalName()) + weight)
+                        * (1 - stats.linkDensity());
+                if (best == null || stats.finalScore > bestScore) {
+                    best = element;
+                    bestScore = stats.finalScore;
+                }
+            }
+        }
+
+        // A class or id that is a content name and nothing worse: "entry-content", not "comment-content"
+        private boolean hasContentClass(Element element) {
+            for (String name : element.classNames()) {
+                if (isContentName(name)) {
+                    return true;
+                }
+            }
+            return isContentName(element.id());
+        }
+
+        private boolean isContentName(String name) {
+            int found = NAME_MATCHER.match(name);
+            return (found & CONTENT) != 0 && (found & (ALWAYS_SKIP | SKIP_UNLESS_CONTENT)) == 0;
+        }
+
+        private void addScore(Element element, double score) {
+            Stats stats = this.stats.get(element);
+            if (stats != null && !stats.skipped) {
+                stats.candidate = true;
+                stats.score += score;
+            }
+        }
+
+        private static boolean isByline(Element element, int found) {
+            if ((found & BYLINE) != 0) {
+                return true;
+            }
+            return element.attributesSize() > 0
+                    && (element.attr("rel").equals("author") || element.attr("itemprop").equals("author"));
+        }
+
+        private static double tagWeight(String tag) {
+            switch (tag) {
+                case "article":
+                    return 10;
+                case "div":
+                case "section":
+                case "main":
+                    return 5;
+                case "pre":
+                case "td":
+                case "blockquote":
+                    return 3;
+                case "ol":
+                case "ul":
+                case "dl":
+                case "dd":
+                case "li":
+                    return -3;
+                default:
+                    return 0;
+            }
+        }
+
+        private static int count(String text, char c) {
+            int count = 0;
+            for (int i = text.indexOf(c); i >= 0; i = text.indexOf(c, i + 1)) {
+                count++;
+            }
+            return count;
+        }
+
+        private void grow() {
+            int size = open.length * 2;
+            open = Arrays.copyOf(open, size);
+            inLink = Arrays.copyOf(inLink, size);
+            names = Arrays.copyOf(names, size);
+        }
+    }
+}
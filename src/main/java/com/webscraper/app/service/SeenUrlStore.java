@@ -0,0 +1,190 @@
+package com.webscraper.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Persistent Bloom filter of article URLs that have already been analyzed, so that
+ * repeated scrapes of the same sites only send new articles downstream. The filter
+ * lives in a memory-mapped file: opening it at startup costs no parsing, and every
+ * update is in the OS page cache immediately and on disk after {@link #flush} or
+ * {@link #close}. URLs are keyed by {@link UrlCanonicalizer#fingerprint}, so
+ * tracking parameters and scheme variants count as the same article.
+ * <p>
+ * A Bloom filter never forgets a URL, but may wrongly report an unseen one as seen
+ * with the configured probability while it holds no more than the expected number of
+ * URLs; past that the rate climbs, see {@link #getFalsePositiveRate()}.
+ */
+public class SeenUrlStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SeenUrlStore.class);
+
+    public static final long DEFAULT_EXPECTED_URLS = 1_000_000;
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    private static final long MAGIC = 0x5745425345454e31L; // "WEBSEEN1"
+    private static final int HEADER_BYTES = 64;
+    private static final int HASH_COUNT_OFFSET = 8;
+    private static final int BIT_COUNT_OFFSET = 16;
+    private static final int EXPECTED_OFFSET = 24;
+    private static final int RATE_OFFSET = 32;
+    private static final int INSERTIONS_OFFSET = 40;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedUrls;
+    private long insertions;
+
+    public SeenUrlStore() throws IOException {
+        this(Paths.get(System.getProperty("user.home"), ".web-scraper", "seen-urls.bloom"),
+                DEFAULT_EXPECTED_URLS, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Open the filter in file, creating it sized for expectedUrls at the given false
+     * positive rate. An existing filter keeps the size it was created with.
+     */
+    public SeenUrlStore(Path file, long expectedUrls, double falsePositiveRate) throws IOException {
+        if (expectedUrls < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Need expectedUrls >= 1 and 0 < falsePositiveRate < 1");
+        }
+        this.file = file;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        // ln2^2 and ln2 give the bit count and hash count that minimize false positives
+        long bits = (long) Math.ceil(-expectedUrls * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bits = Math.max(64, (bits + 63) / 64 * 64);
+        if (HEADER_BYTES + bits / 8 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Filter for " + expectedUrls + " URLs would exceed 2 GB");
+        }
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedUrls * Math.log(2)));
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer existing = mapExisting();
+            if (existing != null) {
+                this.buffer = existing;
+                log.info("Loaded seen-URL filter {} ({} URLs)", file, existing.getLong(INSERTIONS_OFFSET));
+            } else {
+                channel.truncate(0);
+                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + bits / 8);
+                buffer.putLong(0, MAGIC);
+                buffer.putInt(HASH_COUNT_OFFSET, hashes);
+                buffer.putLong(BIT_COUNT_OFFSET, bits);
+                buffer.putLong(EXPECTED_OFFSET, expectedUrls);
+                buffer.putDouble(RATE_OFFSET, falsePositiveRate);
+                buffer.putLong(INSERTIONS_OFFSET, 0);
+                buffer.force();
+                log.info("Created seen-URL filter {} ({} KB, {} hashes)", file, bits / 8 / 1024, hashes);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.bitCount = buffer.getLong(BIT_COUNT_OFFSET);
+        this.hashCount = buffer.getInt(HASH_COUNT_OFFSET);
+        this.expectedUrls = buffer.getLong(EXPECTED_OFFSET);
+        this.insertions = buffer.getLong(INSERTIONS_OFFSET);
+    }
+
+    // Map a previously written filter, or null if there is none or it is damaged
+    private MappedByteBuffer mapExisting() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            return null;
+        }
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        long bits = mapped.getLong(BIT_COUNT_OFFSET);
+        if (mapped.getLong(0) != MAGIC || bits < 64 || bits % 64 != 0 || mapped.getInt(HASH_COUNT_OFFSET) < 1
+                || size != HEADER_BYTES + bits / 8) {
+            log.warn("Seen-URL filter {} is damaged; starting a new one", file);
+            return null;
+        }
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /** False if the URL was certainly never added; true if it probably was */
+    public synchronized boolean mightContain(String url) {
+        long fingerprint = UrlCanonicalizer.fingerprint(url);
+        long h1 = fingerprint;
+        long h2 = secondHash(fingerprint);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((buffer.getLong(wordOffset(bit)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Record the URL; false if it (probably) was already recorded */
+    public synchronized boolean add(String url) {
+        long fingerprint = UrlCanonicalizer.fingerprint(url);
+        long h1 = fingerprint;
+        long h2 = secondHash(fingerprint);
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int offset = wordOffset(bit);
+            long word = buffer.getLong(offset);
+            long updated = word | (1L << bit);
+            if (updated != word) {
+                buffer.putLong(offset, updated);
+                changed = true;
+            }
+        }
+        if (changed) {
+            insertions++;
+            buffer.putLong(INSERTIONS_OFFSET, insertions);
+            if (insertions == expectedUrls + 1) {
+                log.warn("Seen-URL filter {} is over capacity; false positives will rise", file);
+            }
+        }
+        return changed;
+    }
+
+    /** URLs recorded so far; one that collided with earlier URLs on every bit is not counted */
+    public synchronized long size() {
+        return insertions;
+    }
+
+    /** Estimated chance that an unseen URL is reported as seen, at the current fill */
+    public synchronized double getFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions / bitCount), hashCount);
+    }
+
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private static int wordOffset(long bit) {
+        return HEADER_BYTES + (int) (bit >>> 6) * 8;
+    }
+
+    // Double hashing (Kirsch-Mitzenmacher): k probes from two independent 64-bit hashes
+    private static long secondHash(long fingerprint) {
+        long hash = fingerprint * 0x9e3779b97f4a7c15L;
+        hash ^= hash >>> 29;
+        return hash | 1; // bitCount is a multiple of 64, so an even step would reach at most half the bits
+    }
+}
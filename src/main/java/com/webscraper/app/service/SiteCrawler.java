@@ -0,0 +1,283 @@
+package com.webscraper.app.service;
+
+import com.webscraper.app.dto.ArticleBatchResult;
+import com.webscraper.app.dto.DetailedArticle;
+import com.webscraper.app.dto.LinkItem;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Crawls news sites from seed URLs: each seed is read as a listing page, its article
+ * links are analyzed into {@link DetailedArticle}s, and its section and pagination
+ * links are followed as further listing pages up to the maximum depth. A fixed
+ * number of workers share one frontier queue; articles are taken before listing
+ * pages and shallow pages before deep ones, so results flow while the crawl widens.
+ * Every fetch goes through the scraper's per-host politeness scheduler, so workers
+ * spread over several sites run in parallel while each site sees polite spacing.
+ * Pages are only followed on the seed's host and its subdomains, and every URL is
+ * visited once per crawl, however it is linked.
+ */
+public class SiteCrawler {
+
+    private static final Logger log = LoggerFactory.getLogger(SiteCrawler.class);
+
+    public static final int DEFAULT_MAX_DEPTH = 2;
+    public static final int DEFAULT_MAX_PAGES = 50;
+    public static final int DEFAULT_MAX_ARTICLES = 200;
+    public static final int DEFAULT_WORKERS = 8;
+
+    private static final long POLL_MILLIS = 50;
+
+    // Articles first, then listing pages breadth-first, each in discovery order
+    private static final Comparator<Task> FRONTIER_ORDER = Comparator
+            .comparing((Task task) -> !task.article)
+            .thenComparingInt(task -> task.depth)
+            .thenComparingLong(task -> task.order);
+
+    private final WebScraperService scraper;
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+    private int maxPages = DEFAULT_MAX_PAGES;
+    private int maxArticles = DEFAULT_MAX_ARTICLES;
+    private int workers = DEFAULT_WORKERS;
+    private boolean skipAnalyzed;
+
+    public SiteCrawler(WebScraperService scraper) {
+        this.scraper = scraper;
+    }
+
+    /** Link hops to follow from a seed; 0 reads only the seeds themselves */
+    public SiteCrawler maxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must not be negative: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /** Listing pages to read per crawl, seeds included */
+    public SiteCrawler maxPages(int maxPages) {
+        this.maxPages = positive("maxPages", maxPages);
+        return this;
+    }
+
+    /** Articles to analyze per crawl */
+    public SiteCrawler maxArticles(int maxArticles) {
+        this.maxArticles = positive("maxArticles", maxArticles);
+        return this;
+    }
+
+    /** Pages fetched and analyzed at once across all hosts */
+    public SiteCrawler workers(int workers) {
+        this.workers = positive("workers", workers);
+        return this;
+    }
+
+    /** Leave out articles the history says were analyzed before */
+    public SiteCrawler skipAnalyzed(boolean skipAnalyzed) {
+        this.skipAnalyzed = skipAnalyzed;
+        return this;
+    }
+
+    public ArticleBatchResult crawl(Collection<String> seeds) {
+        return crawl(seeds, (url, article) -> { });
+    }
+
+    /**
+     * Crawl from the seeds and return once the frontier is exhausted or the limits
+     * are reached. Each article goes to the listener as soon as it is analyzed;
+     * listing pages and articles that fail are reported to the listener and collected
+     * in the result without stopping the crawl.
+     */
+    public ArticleBatchResult crawl(Collection<String> seeds, ArticleBatchListener listener) {
+        Crawl crawl = new Crawl(listener);
+        for (String seed : seeds) {
+            crawl.offerPage(UrlCanonicalizer.canonicalize(seed), 0);
+        }
+
+        ExecutorService executor = TaskExecutors.newTaskExecutor("site-crawl");
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                running.add(executor.submit(crawl::work));
+            }
+            for (Future<?> worker : running) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    log.error("Crawl worker failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info("Crawl finished: {} listing pages, {} articles, {} failures",
+                crawl.pagesTaken.get(), crawl.articles.size(), crawl.failures.size());
+        return new ArticleBatchResult(crawl.articles, crawl.failures);
+    }
+
+    private static int positive(String name, int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException(name + " must be positive: " + value);
+        }
+        return value;
+    }
+
+    // One URL waiting in the frontier
+    private static final class Task {
+        final String url;
+        final int depth;
+        final boolean article;
+        final long order;
+
+        Task(String url, int depth, boolean article, long order) {
+            this.url = url;
+            this.depth = depth;
+            this.article = article;
+            this.order = order;
+        }
+    }
+
+    // State of a single crawl, shared by its workers
+    private final class Crawl {
+        final ArticleBatchListener listener;
+        final PriorityBlockingQueue<Task> frontier = new PriorityBlockingQueue<>(64, FRONTIER_ORDER);
+        final FingerprintSet visited = new FingerprintSet();
+        final Map<String, DetailedArticle> articles = Collections.synchronizedMap(new LinkedHashMap<>());
+        final Map<String, String> failures = Collections.synchronizedMap(new LinkedHashMap<>());
+        // Queued or running tasks; the crawl is over when it drops to zero
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicInteger pagesTaken = new AtomicInteger();
+        final AtomicInteger articlesTaken = new AtomicInteger();
+        final AtomicLong order = new AtomicLong();
+
+        Crawl(ArticleBatchListener listener) {
+            this.listener = listener;
+        }
+
+        void work() {
+            try {
+                while (true) {
+                    Task task = frontier.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (task == null) {
+                        if (pending.get() == 0) {
+                            return;
+                        }
+                        continue;
+                    }
+                    try {
+                        if (task.article) {
+                            analyze(task.url);
+                        } else {
+                            read(task);
+                        }
+                    } finally {
+                        pending.decrementAndGet();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void read(Task page) {
+            Document doc;
+            try {
+                doc = scraper.loadListingPage(page.url);
+            } catch (IOException e) {
+                log.warn("Could not read listing page {}: {}", page.url, e.getMessage());
+                failures.put(page.url, e.getMessage());
+                listener.onFailure(page.url, e);
+                return;
+            }
+
+            UrlClassifier classifier = scraper.getUrlClassifier();
+            int queuedArticles = 0;
+            for (LinkItem link : scraper.rankArticleLinks(doc, page.url)) {
+                String url = link.getUrl();
+                if (classifier.isListingLink(url, page.url)) {
+                    continue; // A section front that looks like an article; followed below
+                }
+                if (!(skipAnalyzed && scraper.isAlreadyAnalyzed(url)) && offerArticle(url)) {
+                    queuedArticles++;
+                }
+            }
+
+            int queuedPages = 0;
+            if (page.depth < maxDepth) {
+                for (Element anchor : doc.select("a[href], link[rel~=(?i)next]")) {
+                    String url = UrlCanonicalizer.canonicalize(anchor.attr("abs:href"));
+                    boolean next = anchor.attr("rel").toLowerCase(Locale.ROOT).contains("next");
+                    if ((next ? classifier.isSameSite(url, page.url) : classifier.isListingLink(url, page.url))
+                            && offerPage(url, page.depth + 1)) {
+                        queuedPages++;
+                    }
+                }
+            }
+            log.debug("Read {} (depth {}): {} new articles, {} new listing pages",
+                    page.url, page.depth, queuedArticles, queuedPages);
+        }
+
+        private void analyze(String url) {
+            try {
+                DetailedArticle article = scraper.extractDetailedArticle(url);
+                articles.put(url, article);
+                listener.onArticle(url, article);
+            } catch (IOException e) {
+                failures.put(url, e.getMessage());
+                listener.onFailure(url, e);
+            }
+        }
+
+        boolean offerPage(String url, int depth) {
+            if (pagesTaken.get() >= maxPages || !firstVisit(url)
+                    || pagesTaken.getAndUpdate(taken -> taken < maxPages ? taken + 1 : taken) >= maxPages) {
+                return false;
+            }
+            enqueue(new Task(url, depth, false, order.getAndIncrement()));
+            return true;
+        }
+
+        private boolean offerArticle(String url) {
+            if (articlesTaken.get() >= maxArticles || !firstVisit(url)
+                    || articlesTaken.getAndUpdate(taken -> taken < maxArticles ? taken + 1 : taken) >= maxArticles) {
+                return false;
+            }
+            enqueue(new Task(url, 0, true, order.getAndIncrement()));
+            return true;
+        }
+
+        private boolean firstVisit(String url) {
+            long fingerprint = UrlCanonicalizer.fingerprint(url);
+            synchronized (visited) {
+                return visited.add(fingerprint);
+            }
+        }
+
+        private void enqueue(Task task) {
+            pending.incrementAndGet();
+            frontier.add(task);
+        }
+    }
+}
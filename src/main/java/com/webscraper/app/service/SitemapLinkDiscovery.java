@@ -0,0 +1,301 @@
+package com.webscraper.app.service;
+
+import com.webscraper.app.dto.LinkItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Finds article links through a site's XML sitemaps instead of its homepage. Sitemap
+ * locations come from {@code robots.txt} (falling back to {@code /sitemap.xml});
+ * sitemap indexes are followed newest-first, and gzipped sitemaps are inflated on the
+ * fly. Google News sitemaps contribute their headline and publication date. Files are
+ * read with StAX, so no DOM is built however large the sitemap is.
+ */
+public class SitemapLinkDiscovery {
+
+    private static final Logger log = LoggerFactory.getLogger(SitemapLinkDiscovery.class);
+
+    private static final int MAX_SITEMAP_FILES = 20;
+    private static final int MAX_INDEX_DEPTH = 3;
+    private static final int MAX_SITEMAP_BYTES = 10 * 1024 * 1024;
+
+    private final PageFetcher fetcher;
+    private final XMLInputFactory xmlInputFactory;
+
+    SitemapLinkDiscovery(PageFetcher fetcher) {
+        this.fetcher = fetcher;
+        this.xmlInputFactory = XMLInputFactory.newFactory();
+        // Sitemaps never need DTDs; refusing them also rules out XXE
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Collect up to {@code limit} page links for the site, newest first. Entries
+     * without a date sort after dated ones, keeping their sitemap order.
+     */
+    public List<LinkItem> discover(String siteUrl, int limit) throws IOException {
+        String origin = originOf(siteUrl);
+        List<String> roots = sitemapsFromRobots(origin);
+        if (roots.isEmpty()) {
+            roots.add(origin + "/sitemap.xml");
+        }
+
+        Map<String, LinkItem> links = new LinkedHashMap<>();
+        Set<String> visited = new HashSet<>();
+        Deque<SitemapRef> pending = new ArrayDeque<>();
+        for (String root : roots) {
+            pending.add(new SitemapRef(root, null, 0));
+        }
+
+        IOException firstFailure = null;
+        while (!pending.isEmpty() && visited.size() < MAX_SITEMAP_FILES && links.size() < limit) {
+            SitemapRef ref = pending.poll();
+            if (!visited.add(ref.url)) {
+                continue;
+            }
+            try {
+                List<SitemapRef> children = readSitemap(ref, links);
+                // Newest child sitemaps first: news sites split them by month or day
+                children.sort(Comparator.comparing((SitemapRef child) -> child.lastModified,
+                        Comparator.nullsLast(Comparator.reverseOrder())));
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    pending.addFirst(children.get(i));
+                }
+            } catch (IOException e) {
+                log.warn("Skipping sitemap {}: {}", ref.url, e.toString());
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+            }
+        }
+
+        if (links.isEmpty() && firstFailure != null) {
+            throw firstFailure;
+        }
+
+        List<LinkItem> sorted = new ArrayList<>(links.values());
+        sorted.sort(Comparator.comparing(LinkItem::getPublishedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        log.info("Sitemaps read: {}, links found: {}", visited.size(), sorted.size());
+        return sorted.size() > limit ? new ArrayList<>(sorted.subList(0, limit)) : sorted;
+    }
+
+    private List<String> sitemapsFromRobots(String origin) {
+        List<String> sitemaps = new ArrayList<>();
+        try {
+            FetchResponse response = fetcher.fetch(FetchRequest.get(origin + "/robots.txt")
+                    .header("Accept", "text/plain,*/*;q=0.8")
+                    .timeout(5000)
+                    .maxBodySize(512 * 1024));
+            if (response.getStatusCode() >= 400) {
+                return sitemaps;
+            }
+            for (String line : new String(response.getBody(), StandardCharsets.UTF_8).split("\r?\n")) {
+                String trimmed = line.trim();
+                if (trimmed.regionMatches(true, 0, "Sitemap:", 0, 8)) {
+                    String url = trimmed.substring(8).trim();
+                    if (!url.isEmpty() && !sitemaps.contains(url)) {
+                        sitemaps.add(url);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read robots.txt for {}: {}", origin, e.getMessage());
+        }
+        return sitemaps;
+    }
+
+    /** Parse one sitemap file, adding page entries to links and returning child sitemaps */
+    private List<SitemapRef> readSitemap(SitemapRef ref, Map<String, LinkItem> links) throws IOException {
+        FetchResponse response = fetcher.fetch(FetchRequest.get(ref.url)
+                .header("Accept", "application/xml,text/xml,application/x-gzip,*/*;q=0.8")
+                .timeout(15000)
+                .maxBodySize(MAX_SITEMAP_BYTES));
+        if (response.getStatusCode() >= 400) {
+            throw new IOException("HTTP " + response.getStatusCode());
+        }
+
+        List<SitemapRef> children = new ArrayList<>();
+        try (InputStream in = openBody(response.getBody())) {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(in);
+            try {
+                parse(reader, ref, links, children);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            // A truncated or sloppy sitemap still yields the entries before the error
+            if (links.isEmpty() && children.isEmpty()) {
+                throw new IOException("Invalid sitemap XML: " + e.getMessage());
+            }
+        }
+        return children;
+    }
+
+    private void parse(XMLStreamReader reader, SitemapRef ref, Map<String, LinkItem> links,
+                       List<SitemapRef> children) throws XMLStreamException {
+        String loc = null;
+        String lastModified = null;
+        String newsTitle = null;
+        String newsDate = null;
+        StringBuilder text = new StringBuilder();
+        int depth = 0;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                text.setLength(0);
+                String name = reader.getLocalName();
+                if (name.equals("url") || name.equals("sitemap")) {
+                    loc = lastModified = newsTitle = newsDate = null;
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String value = text.toString().trim();
+                text.setLength(0);
+                // loc and lastmod count only directly under url/sitemap, not inside image:image
+                boolean entryField = depth-- == 3;
+                switch (reader.getLocalName()) {
+                    case "loc":
+                        if (entryField) {
+                            loc = value;
+                        }
+                        break;
+                    case "lastmod":
+                        if (entryField) {
+                            lastModified = value;
+                        }
+                        break;
+                    case "title":
+                        if (isNewsElement(reader)) {
+                            newsTitle = value; // image:title and video:title are not headlines
+                        }
+                        break;
+                    case "publication_date":
+                        newsDate = value;
+                        break;
+                    case "sitemap":
+                        if (loc != null && !loc.isEmpty() && ref.depth < MAX_INDEX_DEPTH) {
+                            children.add(new SitemapRef(loc, parseW3cDate(lastModified), ref.depth + 1));
+                        }
+                        break;
+                    case "url":
+                        if (loc != null && !loc.isEmpty() && !links.containsKey(loc)) {
+                            Instant date = parseW3cDate(newsDate != null ? newsDate : lastModified);
+                            String title = newsTitle != null && !newsTitle.isEmpty() ? newsTitle : titleFromUrl(loc);
+                            links.put(loc, new LinkItem(title, loc, date));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    private static boolean isNewsElement(XMLStreamReader reader) {
+        String namespace = reader.getNamespaceURI();
+        return namespace != null && namespace.contains("sitemap-news");
+    }
+
+    // Sitemaps are often served as raw .gz files rather than with Content-Encoding
+    private static InputStream openBody(byte[] body) throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        if (body.length > 2 && (body[0] & 0xff) == 0x1f && (body[1] & 0xff) == 0x8b) {
+            return new GZIPInputStream(in);
+        }
+        return in;
+    }
+
+    /** Parse a W3C datetime as used by sitemaps: YYYY, YYYY-MM, YYYY-MM-DD or a full timestamp */
+    static Instant parseW3cDate(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            switch (value.length()) {
+                case 4:
+                    return LocalDate.of(Integer.parseInt(value), 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+                case 7:
+                    return YearMonth.parse(value).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+                case 10:
+                    return LocalDate.parse(value).atStartOfDay().toInstant(ZoneOffset.UTC);
+                default:
+                    break;
+            }
+            try {
+                return OffsetDateTime.parse(value).toInstant();
+            } catch (DateTimeParseException e) {
+                return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC); // Missing zone; assume UTC
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Sitemap URL entries carry no title; make one from the last path segment
+    static String titleFromUrl(String url) {
+        String path = url.replaceAll("[?#].*$", "").replaceAll("/+$", "");
+        String slug = path.substring(path.lastIndexOf('/') + 1).replaceAll("\\.[a-zA-Z0-9]+$", "");
+        String words = slug.replaceAll("[-_]+", " ").trim();
+        if (words.isEmpty() || words.matches("\\d+")) {
+            return url;
+        }
+        String title = Character.toUpperCase(words.charAt(0)) + words.substring(1);
+        return title.length() > 100 ? title.substring(0, 97) + "..." : title;
+    }
+
+    private static String originOf(String siteUrl) throws IOException {
+        try {
+            URI uri = new URI(siteUrl.trim());
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                throw new IOException("Not an absolute URL: " + siteUrl);
+            }
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid URL: " + siteUrl);
+        }
+    }
+
+    private static class SitemapRef {
+        final String url;
+        final Instant lastModified;
+        final int depth;
+
+        SitemapRef(String url, Instant lastModified, int depth) {
+            this.url = url;
+            this.lastModified = lastModified;
+            this.depth = depth;
+        }
+    }
+}
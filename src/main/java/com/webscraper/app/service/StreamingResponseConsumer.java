@@ -0,0 +1,206 @@
+package com.webscraper.app.service;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bridges the async client's push-style body delivery to a blocking InputStream.
+ * Flow control keeps at most {@link #WINDOW_SIZE} bytes buffered, so a reader that
+ * stops early never pulls the rest of the body off the socket.
+ */
+class StreamingResponseConsumer implements AsyncResponseConsumer<Void> {
+
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    private final CompletableFuture<HttpResponse> head = new CompletableFuture<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dataAvailable = lock.newCondition();
+    private final ArrayDeque<ByteBuffer> chunks = new ArrayDeque<>();
+    private final long readTimeoutMillis;
+
+    private CapacityChannel capacityChannel;
+    private FutureCallback<Void> resultCallback;
+    private int buffered;
+    private boolean ended;
+    private volatile boolean hasEntity;
+    private Exception failure;
+
+    StreamingResponseConsumer(long readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    CompletableFuture<HttpResponse> head() {
+        return head;
+    }
+
+    InputStream body() {
+        return new BodyInputStream();
+    }
+
+    @Override
+    public void consumeResponse(HttpResponse response, EntityDetails entityDetails, HttpContext context,
+                                FutureCallback<Void> resultCallback) {
+        this.resultCallback = resultCallback;
+        this.hasEntity = entityDetails != null;
+        if (entityDetails == null) {
+            markEnded();
+        }
+        head.complete(response);
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) {
+        // 1xx responses carry no body; nothing to do
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+        int increment;
+        lock.lock();
+        try {
+            this.capacityChannel = capacityChannel;
+            increment = WINDOW_SIZE - buffered;
+        } finally {
+            lock.unlock();
+        }
+        if (increment > 0) {
+            capacityChannel.update(increment);
+        }
+    }
+
+    @Override
+    public void consume(ByteBuffer src) {
+        ByteBuffer copy = ByteBuffer.allocate(src.remaining());
+        copy.put(src).flip();
+        lock.lock();
+        try {
+            chunks.add(copy);
+            buffered += copy.remaining();
+            dataAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) {
+        markEnded();
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        lock.lock();
+        try {
+            failure = cause;
+            dataAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        head.completeExceptionally(cause);
+    }
+
+    @Override
+    public void releaseResources() {
+        // Buffers are released by the reader; nothing pooled here
+    }
+
+    private void markEnded() {
+        FutureCallback<Void> callback;
+        lock.lock();
+        try {
+            ended = true;
+            callback = resultCallback;
+            dataAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (callback != null) {
+            callback.completed(null);
+        }
+    }
+
+    /** False for responses that carry no body at all, such as 204 and 304 */
+    boolean hasEntity() {
+        return hasEntity;
+    }
+
+    boolean isEnded() {
+        lock.lock();
+        try {
+            return ended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private class BodyInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int n = read(single, 0, 1);
+            return n == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int n;
+            CapacityChannel channel;
+            lock.lock();
+            try {
+                long remainingNanos = TimeUnit.MILLISECONDS.toNanos(readTimeoutMillis);
+                while (chunks.isEmpty() && !ended && failure == null) {
+                    if (remainingNanos <= 0) {
+                        throw new SocketTimeoutException("Read timed out");
+                    }
+                    try {
+                        remainingNanos = dataAvailable.awaitNanos(remainingNanos);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while reading response body");
+                    }
+                }
+                if (chunks.isEmpty()) {
+                    if (failure != null) {
+                        throw failure instanceof IOException ? (IOException) failure : new IOException(failure.getMessage(), failure);
+                    }
+                    return -1;
+                }
+                ByteBuffer chunk = chunks.peek();
+                n = Math.min(len, chunk.remaining());
+                chunk.get(b, off, n);
+                if (!chunk.hasRemaining()) {
+                    chunks.poll();
+                }
+                buffered -= n;
+                channel = capacityChannel;
+            } finally {
+                lock.unlock();
+            }
+            if (channel != null) {
+                channel.update(n);
+            }
+            return n;
+        }
+    }
+}
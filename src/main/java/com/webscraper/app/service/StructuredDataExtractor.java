@@ -0,0 +1,358 @@
+package com.webscraper.app.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.internal.StringUtil;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the article metadata that publishers embed for search engines and social
+ * sites: schema.org NewsArticle blocks in {@code application/ld+json} scripts, and
+ * OpenGraph, {@code article:} and plain meta tags. These name the headline, author,
+ * publish date and lead image exactly, and sometimes carry the whole body, so they are
+ * both cheaper and more accurate than matching the page layout. JSON-LD is read with
+ * {@link JsonReader}, skipping everything but the fields wanted; it takes precedence
+ * over meta tags, and the first article found wins.
+ */
+public class StructuredDataExtractor {
+
+    private static final Logger log = LoggerFactory.getLogger(StructuredDataExtractor.class);
+
+    private static final int MAX_NESTING = 8;
+
+    /** Metadata found on a page; any field may be missing */
+    public static final class Metadata {
+        private String headline;
+        private String author;
+        private String datePublished;
+        private String body;
+        private final List<String> imageUrls = new ArrayList<>();
+        // Whether a JSON-LD article was found; later ones are ignored
+        private boolean article;
+
+        /** The headline, or null */
+        public String getHeadline() { return headline; }
+        /** The author or authors, comma separated, or null */
+        public String getAuthor() { return author; }
+        /** The publish date as the page gives it, or null */
+        public String getDatePublished() { return datePublished; }
+        /** The full article text, or null */
+        public String getBody() { return body; }
+        /** Absolute lead image URLs, best first */
+        public List<String> getImageUrls() { return imageUrls; }
+
+        // Take the fields this one is missing from other
+        void fillFrom(Metadata other) {
+            headline = headline != null ? headline : other.headline;
+            author = author != null ? author : other.author;
+            datePublished = datePublished != null ? datePublished : other.datePublished;
+            body = body != null ? body : other.body;
+            article |= other.article;
+            for (String url : other.imageUrls) {
+                if (!imageUrls.contains(url)) {
+                    imageUrls.add(url);
+                }
+            }
+        }
+    }
+
+    /** Read JSON-LD blocks anywhere in the page and meta tags in its head */
+    public Metadata extract(Document doc) {
+        Metadata metadata = new Metadata();
+        Metadata meta = readHead(doc, metadata);
+        Element body = doc.body();
+        if (body != null) {
+            for (Element script : body.getElementsByTag("script")) {
+                if (isJsonLd(script)) {
+                    readJsonLd(script, doc.location(), metadata);
+                }
+            }
+        }
+        metadata.fillFrom(meta);
+        return metadata;
+    }
+
+    /**
+     * Read the page head only, which is all most pages need and costs no walk of the
+     * body. Its JSON-LD blocks go into jsonLd and its meta tags into the Metadata
+     * returned. They are kept apart so that JSON-LD further down the page still takes
+     * precedence: the caller fills jsonLd from the meta tags last.
+     */
+    Metadata readHead(Document doc, Metadata jsonLd) {
+        Metadata meta = new Metadata();
+        Element head = doc.head();
+        if (head == null) {
+            return meta;
+        }
+        for (Element element : head.children()) {
+            if (element.normalName().equals("meta")) {
+                readMeta(element, meta);
+            } else if (isJsonLd(element)) {
+                readJsonLd(element, doc.location(), jsonLd);
+            }
+        }
+        return meta;
+    }
+
+    static boolean isJsonLd(Element element) {
+        return element.normalName().equals("script")
+                && element.attr("type").trim().toLowerCase(Locale.ROOT).startsWith("application/ld+json");
+    }
+
+    /** Add what the JSON-LD script says about the page's article to metadata's missing fields */
+    void readJsonLd(Element script, String baseUrl, Metadata metadata) {
+        if (metadata.article) {
+            return;
+        }
+        String json = unwrap(script.data());
+        Metadata found = new Metadata();
+        try {
+            JsonReader reader = new JsonReader(json);
+            readValue(reader, baseUrl, found, 0);
+        } catch (IOException e) {
+            log.debug("Ignoring malformed JSON-LD on {}: {}", baseUrl, e.getMessage());
+        }
+        metadata.fillFrom(found);
+    }
+
+    // An object, or an array of them, looking for an article at any of the usual places
+    private void readValue(JsonReader reader, String baseUrl, Metadata found, int nesting) throws IOException {
+        JsonReader.Token token = reader.peek();
+        if (nesting > MAX_NESTING || (token != JsonReader.Token.BEGIN_OBJECT && token != JsonReader.Token.BEGIN_ARRAY)) {
+            reader.skipValue();
+        } else if (token == JsonReader.Token.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                readValue(reader, baseUrl, found, nesting + 1);
+            }
+            reader.endArray();
+        } else {
+            readObject(reader, baseUrl, found, nesting);
+        }
+    }
+
+    private void readObject(JsonReader reader, String baseUrl, Metadata found, int nesting) throws IOException {
+        // @type may come last, so fields are gathered first and kept only for an article
+        boolean article = false;
+        Metadata fields = new Metadata();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "@type":
+                    article = isArticleType(readStrings(reader));
+                    break;
+                case "headline":
+                    fields.headline = clean(firstOf(readStrings(reader)));
+                    break;
+                case "author":
+                    fields.author = author(readNames(reader));
+                    break;
+                case "datePublished":
+                    fields.datePublished = clean(firstOf(readStrings(reader)));
+                    break;
+                case "articleBody":
+                    fields.body = clean(firstOf(readStrings(reader)));
+                    if (fields.body != null && fields.body.indexOf('<') >= 0) {
+                        fields.body = clean(Jsoup.parseBodyFragment(fields.body).text()); // Some put markup in
+                    }
+                    break;
+                case "image":
+                    for (String url : readUrls(reader)) {
+                        addImage(fields, baseUrl, url);
+                    }
+                    break;
+                case "@graph":
+                case "mainEntity":
+                    readValue(reader, baseUrl, found, nesting + 1);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (article && !found.article) {
+            fields.article = true;
+            found.fillFrom(fields);
+        }
+    }
+
+    private static boolean isArticleType(List<String> types) {
+        for (String type : types) {
+            if (type.endsWith("Article") || type.equals("BlogPosting") || type.equals("Report")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A string or an array of strings
+    private static List<String> readStrings(JsonReader reader) throws IOException {
+        List<String> values = new ArrayList<>();
+        if (reader.peek() == JsonReader.Token.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() == JsonReader.Token.STRING) {
+                    values.add(reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endArray();
+        } else if (reader.peek() == JsonReader.Token.STRING) {
+            values.add(reader.nextString());
+        } else {
+            reader.skipValue();
+        }
+        return values;
+    }
+
+    // Names of people or organizations: strings, {"name": ...} objects, or arrays of either
+    private static List<String> readNames(JsonReader reader) throws IOException {
+        return readNamed(reader, "name", 0);
+    }
+
+    // Image URLs: strings, {"url": ...} objects, or arrays of either
+    private static List<String> readUrls(JsonReader reader) throws IOException {
+        return readNamed(reader, "url", 0);
+    }
+
+    private static List<String> readNamed(JsonReader reader, String field, int nesting) throws IOException {
+        List<String> values = new ArrayList<>();
+        JsonReader.Token token = reader.peek();
+        if (nesting > MAX_NESTING) {
+            reader.skipValue();
+        } else if (token == JsonReader.Token.STRING) {
+            values.add(reader.nextString());
+        } else if (token == JsonReader.Token.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                values.addAll(readNamed(reader, field, nesting + 1));
+            }
+            reader.endArray();
+        } else if (token == JsonReader.Token.BEGIN_OBJECT) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals(field) && reader.peek() == JsonReader.Token.STRING) {
+                    values.add(reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } else {
+            reader.skipValue();
+        }
+        return values;
+    }
+
+    private static void readMeta(Element meta, Metadata found) {
+        String key = meta.hasAttr("property") ? meta.attr("property") : meta.attr("name");
+        String content = clean(meta.attr("content"));
+        if (content == null) {
+            return;
+        }
+        switch (key.toLowerCase(Locale.ROOT)) {
+            case "og:title":
+            case "twitter:title":
+                found.headline = found.headline != null ? found.headline : content;
+                break;
+            case "author":
+            case "article:author":
+            case "byl":
+                // article:author is often a profile URL rather than a name
+                if (found.author == null && !content.startsWith("http")) {
+                    found.author = author(List.of(content));
+                }
+                break;
+            case "article:published_time":
+            case "og:article:published_time":
+            case "datepublished":
+            case "pubdate":
+            case "publish_date":
+            case "date":
+                found.datePublished = found.datePublished != null ? found.datePublished : content;
+                break;
+            case "og:image":
+            case "og:image:url":
+            case "og:image:secure_url":
+            case "twitter:image":
+            case "twitter:image:src":
+                addImage(found, meta.baseUri(), content);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static String author(List<String> names) {
+        List<String> cleaned = new ArrayList<>();
+        for (String name : names) {
+            String text = clean(name);
+            if (text != null) {
+                text = ReadabilityExtractor.cleanByline(text);
+                if (!text.isEmpty() && !text.startsWith("http") && !cleaned.contains(text)) {
+                    cleaned.add(text);
+                }
+            }
+        }
+        return cleaned.isEmpty() ? null : String.join(", ", cleaned);
+    }
+
+    private static void addImage(Metadata found, String baseUrl, String url) {
+        String resolved = clean(url) == null ? "" : resolve(baseUrl, url.trim());
+        if (!resolved.isEmpty() && !found.imageUrls.contains(resolved)) {
+            found.imageUrls.add(resolved);
+        }
+    }
+
+    // Most metadata image URLs are already absolute; resolving those only costs a regex pass
+    private static String resolve(String baseUrl, String url) {
+        if (url.startsWith("https://") || url.startsWith("http://")) {
+            for (int i = 0; i < url.length(); i++) {
+                if (url.charAt(i) <= ' ') {
+                    return StringUtil.resolve(baseUrl, url);
+                }
+            }
+            return url;
+        }
+        return StringUtil.resolve(baseUrl, url);
+    }
+
+    // Drop the HTML comment or CDATA wrapper older pages put around script contents
+    private static String unwrap(String data) {
+        String json = data.trim();
+        if (json.startsWith("<!--")) {
+            json = json.substring(4);
+        } else if (json.startsWith("<![CDATA[")) {
+            json = json.substring(9);
+        }
+        if (json.endsWith("-->")) {
+            json = json.substring(0, json.length() - 3);
+        } else if (json.endsWith("]]>")) {
+            json = json.substring(0, json.length() - 3);
+        }
+        return json;
+    }
+
+    private static String firstOf(List<String> values) {
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    // Decode entities some publishers leave in, and treat blank as missing
+    private static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.indexOf('&') >= 0 ? Parser.unescapeEntities(value, false) : value;
+        text = text.trim();
+        return text.isEmpty() ? null : text;
+    }
+}
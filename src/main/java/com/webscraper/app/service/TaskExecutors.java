@@ -0,0 +1,67 @@
+package com.webscraper.app.service;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for blocking scrape work. On a Java 21+ runtime each task gets its own
+ * virtual thread; on Java 17 it falls back to a pool of daemon threads, at most one
+ * per connection the fetcher can open, with further tasks queued. A batch of any size
+ * then never starts more platform threads than could be fetching at once.
+ * The virtual-thread factory is looked up reflectively so the default Java 17
+ * build keeps compiling (build with -Pjava21 to target 21 directly).
+ */
+final class TaskExecutors {
+
+    static final int MAX_PLATFORM_THREADS = HttpFetcher.DEFAULT_MAX_CONNECTIONS;
+    private static final long IDLE_SECONDS = 60;
+
+    private static final MethodHandle VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+
+    private TaskExecutors() {
+    }
+
+    static ExecutorService newTaskExecutor(String namePrefix) {
+        if (VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invokeExact();
+            } catch (Throwable e) {
+                // Fall through to platform threads
+            }
+        }
+        return newPlatformExecutor(namePrefix, MAX_PLATFORM_THREADS);
+    }
+
+    // Threads start as tasks arrive, up to maxThreads, and end after a minute idle
+    static ExecutorService newPlatformExecutor(String namePrefix, int maxThreads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    static boolean usesVirtualThreads() {
+        return VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    private static MethodHandle findVirtualThreadExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.webscraper.app.service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalizes article URLs so that one article reached through different links is
+ * recognized as the same. {@link #canonicalize} gives a form that is still safe to
+ * fetch: lowercase scheme and host, no default port, dot segments resolved, and no
+ * fragment or tracking parameters ({@code utm_*}, {@code fbclid} and the like).
+ * {@link #fingerprint} goes further for dedupe only: http and https, a trailing slash
+ * and the order of query parameters make no difference.
+ */
+public final class UrlCanonicalizer {
+
+    private static final Set<String> TRACKING_PARAMETERS = Set.of(
+            "fbclid", "gclid", "dclid", "gbraid", "wbraid", "msclkid", "yclid", "igshid",
+            "mc_cid", "mc_eid", "_ga", "_gl", "ocid", "cmpid");
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private UrlCanonicalizer() {
+    }
+
+    /** Canonical form of an absolute http(s) URL; anything else is returned unchanged */
+    public static String canonicalize(String url) {
+        URI uri = parse(url);
+        if (uri == null) {
+            return url;
+        }
+        List<String> parameters = queryParameters(uri);
+        return uri.getScheme().toLowerCase(Locale.ROOT) + "://" + authority(uri) + path(uri)
+                + (parameters.isEmpty() ? "" : "?" + String.join("&", parameters));
+    }
+
+    /**
+     * 64-bit fingerprint of a URL's identity. Two URLs with the same fingerprint are
+     * treated as the same article; with 64 bits an accidental collision is negligible
+     * even across millions of URLs.
+     */
+    public static long fingerprint(String url) {
+        return hash(dedupeKey(url));
+    }
+
+    /** The string the fingerprint is computed from, exposed for logging and tests */
+    static String dedupeKey(String url) {
+        URI uri = parse(url);
+        if (uri == null) {
+            return url;
+        }
+        String path = path(uri);
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        List<String> parameters = queryParameters(uri);
+        Collections.sort(parameters);
+        return "//" + authority(uri) + path + (parameters.isEmpty() ? "" : "?" + String.join("&", parameters));
+    }
+
+    private static URI parse(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = new URI(url.trim()).normalize();
+            String scheme = uri.getScheme();
+            if (uri.isOpaque() || uri.getHost() == null
+                    || !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+                return null;
+            }
+            return uri;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static String authority(URI uri) {
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (host.endsWith(".")) {
+            host = host.substring(0, host.length() - 1);
+        }
+        int port = uri.getPort();
+        boolean defaultPort = port == -1
+                || (port == 80 && "http".equalsIgnoreCase(uri.getScheme()))
+                || (port == 443 && "https".equalsIgnoreCase(uri.getScheme()));
+        String userInfo = uri.getRawUserInfo();
+        return (userInfo != null ? userInfo + "@" : "") + host + (defaultPort ? "" : ":" + port);
+    }
+
+    private static String path(URI uri) {
+        String path = uri.getRawPath();
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        // normalize() leaves leading ".." segments it cannot resolve
+        while (path.startsWith("/../")) {
+            path = path.substring(3);
+        }
+        return path;
+    }
+
+    // Raw name=value pairs in their original order, without empty and tracking parameters
+    private static List<String> queryParameters(URI uri) {
+        List<String> kept = new ArrayList<>();
+        String query = uri.getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return kept;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            int equals = parameter.indexOf('=');
+            String name = (equals >= 0 ? parameter.substring(0, equals) : parameter).toLowerCase(Locale.ROOT);
+            if (!name.startsWith("utm_") && !TRACKING_PARAMETERS.contains(name)) {
+                kept.add(parameter);
+            }
+        }
+        return kept;
+    }
+
+    // FNV-1a over the UTF-16 chars, then a MurmurHash3 finalizer to spread the bits
+    private static long hash(String key) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,294 @@
+package com.webscraper.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which links look like articles and which images look like article content.
+ * All substring lists are compiled once into {@link MultiPatternMatcher} automata, so
+ * a URL is scanned a single time however many patterns there are, and the regexes
+ * are precompiled. Matching is case-insensitive and independent of the default locale.
+ */
+public class UrlClassifier {
+
+    private static final Logger log = LoggerFactory.getLogger(UrlClassifier.class);
+
+    public static final List<String> DEFAULT_LINK_SKIP_PATTERNS = List.of(
+            "/about", "/contact", "/privacy", "/terms", "/policy",
+            "/subscribe", "/newsletter", "/advertise", "/jobs", "/careers",
+            "/help", "/support", "/faq", "/sitemap", "/search",
+            "/login", "/register", "/account", "/profile",
+            "/tag/", "/tags/", "/category/", "/author/", "/page/",
+            "/gallery", "/video", "/photos", "/images",
+            "/rss", "/feed", "/xml", "/api/",
+            "facebook.com", "twitter.com", "instagram.com", "youtube.com",
+            "mailto:", "javascript:", "tel:");
+
+    public static final List<String> DEFAULT_ARTICLE_PATTERNS = List.of(
+            "/news/", "/article/", "/story/", "/post/", "/politics/",
+            "/world/", "/business/", "/sports/", "/technology/", "/health/",
+            "/entertainment/", "/science/", "/opinion/", "/analysis/",
+            "/breaking", "/latest", "/today", "/live");
+
+    public static final List<String> DEFAULT_IMAGE_SKIP_PATTERNS = List.of(
+            "logo", "header", "footer", "nav", "menu", "icon", "avatar",
+            "advertisement", "banner", "sidebar", "widget", "social",
+            "tracking", "pixel", "analytics", "beacon", "1x1", "spacer");
+
+    public static final List<String> DEFAULT_IMAGE_CONTEXT_SKIP_TERMS = List.of(
+            "logo", "advertisement", "banner", "social", "icon", "avatar",
+            "tracking", "pixel", "widget", "sidebar", "nav", "menu", "footer");
+
+    private static final Set<String> FILE_EXTENSIONS = Set.of(
+            "pdf", "doc", "docx", "xls", "xlsx", "zip", "rar", "exe", "jpg", "jpeg", "png", "gif", "mp4", "mp3");
+    private static final List<String> IMAGE_EXTENSIONS = List.of(".jpg", ".jpeg", ".png", ".gif", ".webp", ".svg");
+    private static final List<String> INLINE_IMAGE_MARKERS = List.of("data:", "base64");
+    private static final List<String> CONTENT_CLASS_TERMS = List.of("content", "article", "story");
+    // Index pages worth crawling for more articles, even where they are skipped as articles
+    private static final List<String> LISTING_PATTERNS = List.of(
+            "/category/", "/tag/", "/tags/", "/topic/", "/topics/", "/section/", "/page/",
+            "/archive", "?page=", "&page=", "?p=", "&p=");
+
+    private static final Pattern DAY_PATH = Pattern.compile(".*/(20\\d{2}|\\d{4})/(\\d{1,2}|\\d{2})/(\\d{1,2}|\\d{2})/.*");
+    private static final Pattern MONTH_PATH = Pattern.compile(".*/(20\\d{2})/(\\d{1,2})/.*");
+    // "/world", "/sport/football/", "/middle-east": one or two short word segments
+    private static final Pattern SECTION_PATH = Pattern.compile("(/[a-z]{2,20}(-[a-z]{2,20})?){1,2}/?");
+
+    private static final int MAX_URL_LENGTH = 500;
+
+    // Matcher groups
+    private static final int SKIP = 1;
+    private static final int ARTICLE = 1 << 1;
+    private static final int IMAGE_EXTENSION = 1 << 2;
+    private static final int INLINE_IMAGE = 1 << 3;
+    private static final int CONTENT_CLASS = 1 << 4;
+    private static final int LISTING = 1 << 5;
+
+    private final MultiPatternMatcher linkMatcher;
+    private final MultiPatternMatcher imageUrlMatcher;
+    private final MultiPatternMatcher imageContextMatcher;
+    private volatile BaseHost lastBase = new BaseHost("", null);
+
+    public UrlClassifier() {
+        this(DEFAULT_LINK_SKIP_PATTERNS, DEFAULT_ARTICLE_PATTERNS,
+                DEFAULT_IMAGE_SKIP_PATTERNS, DEFAULT_IMAGE_CONTEXT_SKIP_TERMS);
+    }
+
+    /**
+     * @param linkSkipPatterns         substrings that rule a link out (site pages, social, files)
+     * @param articlePatterns          substrings that mark a link as article-like
+     * @param imageSkipPatterns        substrings of image URLs for logos, ads and trackers
+     * @param imageContextSkipTerms    terms in an image's alt/class/parent class that rule it out
+     */
+    public UrlClassifier(Collection<String> linkSkipPatterns, Collection<String> articlePatterns,
+                         Collection<String> imageSkipPatterns, Collection<String> imageContextSkipTerms) {
+        this.linkMatcher = MultiPatternMatcher.builder()
+                .add(0, linkSkipPatterns)
+                .add(1, articlePatterns)
+                .add(5, LISTING_PATTERNS)
+                .build();
+        this.imageUrlMatcher = MultiPatternMatcher.builder()
+                .add(0, imageSkipPatterns)
+                .add(2, IMAGE_EXTENSIONS)
+                .add(3, INLINE_IMAGE_MARKERS)
+                .build();
+        this.imageContextMatcher = MultiPatternMatcher.builder()
+                .add(0, imageContextSkipTerms)
+                .add(4, CONTENT_CLASS_TERMS)
+                .build();
+    }
+
+    /**
+     * True for absolute http(s) links on the base URL's host or a subdomain of it
+     * that are not site pages, social links or files, and look like articles: an
+     * article section in the URL, a date in the path, or simply a long path.
+     */
+    public boolean isArticleLink(String href, String baseUrl) {
+        try {
+            if (href == null || href.trim().isEmpty() || !href.startsWith("http")) {
+                return false;
+            }
+
+            URI uri = URI.create(href);
+            if (!isOnSite(uri, baseUrl)) {
+                return false;
+            }
+            if (href.indexOf('#') >= 0 || href.length() >= MAX_URL_LENGTH || hasFileExtension(href)) {
+                return false;
+            }
+
+            int found = linkMatcher.match(foldCase(href), SKIP);
+            if ((found & SKIP) != 0) {
+                return false;
+            }
+            if ((found & ARTICLE) != 0) {
+                return true;
+            }
+            String path = uri.getPath().toLowerCase(Locale.ROOT);
+            return path.length() > 10 || DAY_PATH.matcher(path).matches() || MONTH_PATH.matcher(path).matches();
+        } catch (Exception e) {
+            log.debug("Error validating link {}: {}", href, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * True for same-site pages that list articles rather than being one: section
+     * fronts such as "/world" or "/sport/football", and tag, category, archive and
+     * numbered pages. Used by {@link SiteCrawler} to decide which pages to follow.
+     */
+    public boolean isListingLink(String href, String baseUrl) {
+        try {
+            if (href == null || !href.startsWith("http") || href.indexOf('#') >= 0
+                    || href.length() >= MAX_URL_LENGTH || hasFileExtension(href)) {
+                return false;
+            }
+            URI uri = URI.create(href);
+            if (!isOnSite(uri, baseUrl)) {
+                return false;
+            }
+            int found = linkMatcher.match(foldCase(href), LISTING);
+            if ((found & LISTING) != 0) {
+                return true;
+            }
+            if ((found & SKIP) != 0 || uri.getRawQuery() != null) {
+                return false;
+            }
+            return SECTION_PATH.matcher(uri.getPath().toLowerCase(Locale.ROOT)).matches();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /** True if href is an absolute URL on the base URL's host or a subdomain of it */
+    public boolean isSameSite(String href, String baseUrl) {
+        try {
+            return href != null && href.startsWith("http") && isOnSite(URI.create(href), baseUrl);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The date in a link's path, like "/2024/05/17/" or "/2024/05/" (read as the first
+     * of the month), at midnight UTC; null if the path has no plausible date.
+     */
+    public Instant getPathDate(String url) {
+        try {
+            String path = URI.create(url).getPath();
+            if (path == null) {
+                return null;
+            }
+            Matcher day = DAY_PATH.matcher(path);
+            if (day.matches()) {
+                return pathDate(day.group(1), day.group(2), day.group(3));
+            }
+            Matcher month = MONTH_PATH.matcher(path);
+            return month.matches() ? pathDate(month.group(1), month.group(2), "1") : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Instant pathDate(String year, String month, String day) {
+        try {
+            LocalDate date = LocalDate.of(Integer.parseInt(year), Integer.parseInt(month), Integer.parseInt(day));
+            if (date.getYear() < 1990 || date.isAfter(LocalDate.now(ZoneOffset.UTC).plusDays(1))) {
+                return null; // A number that happens to look like a date
+            }
+            return date.atStartOfDay().toInstant(ZoneOffset.UTC);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /** True for image URLs with an image extension that are not logos, ads, trackers or inline data */
+    public boolean isContentImageUrl(String url) {
+        if (url == null || url.trim().isEmpty() || url.length() >= MAX_URL_LENGTH) {
+            return false;
+        }
+        try {
+            URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        int found = imageUrlMatcher.match(foldCase(url), SKIP | INLINE_IMAGE);
+        return (found & (SKIP | INLINE_IMAGE)) == 0 && (found & IMAGE_EXTENSION) != 0;
+    }
+
+    /**
+     * Judge an image by its alt text, class and parent's class: reject ads, logos and
+     * widgets, and accept it if it has a real description or sits in a content block.
+     */
+    public boolean isNewsImage(String alt, String className, String parentClassName) {
+        String lowerAlt = foldCase(alt);
+        String lowerClass = foldCase(className);
+        String lowerParent = foldCase(parentClassName);
+
+        int altFound = imageContextMatcher.match(lowerAlt, SKIP);
+        int classFound = imageContextMatcher.match(lowerClass, SKIP);
+        int parentFound = imageContextMatcher.match(lowerParent, SKIP);
+        if (((altFound | classFound | parentFound) & SKIP) != 0) {
+            return false;
+        }
+        return lowerAlt.length() > 10 || ((classFound | parentFound) & CONTENT_CLASS) != 0;
+    }
+
+    // A path like "/report.pdf" ends in a file extension (extensions contain no dots)
+    private static boolean hasFileExtension(String href) {
+        int dot = href.lastIndexOf('.');
+        return dot >= 0 && FILE_EXTENSIONS.contains(href.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private boolean isOnSite(URI uri, String baseUrl) {
+        String linkHost = uri.getHost();
+        String baseHost = baseHost(baseUrl);
+        if (linkHost == null || baseHost == null) {
+            return false;
+        }
+        // Allow same domain and subdomains
+        return linkHost.equals(baseHost) || linkHost.endsWith("." + baseHost);
+    }
+
+    // The matcher folds ASCII itself; only non-ASCII text needs a real lowercase pass
+    private static String foldCase(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 128) {
+                return text.toLowerCase(Locale.ROOT);
+            }
+        }
+        return text;
+    }
+
+    // Link checks run for every anchor against the same base URL; parse it once
+    private String baseHost(String baseUrl) {
+        BaseHost base = lastBase;
+        if (!base.url.equals(baseUrl)) {
+            base = new BaseHost(baseUrl, URI.create(baseUrl).getHost());
+            lastBase = base;
+        }
+        return base.host;
+    }
+
+    private static final class BaseHost {
+        final String url;
+        final String host;
+
+        BaseHost(String url, String host) {
+            this.url = url;
+            this.host = host;
+        }
+    }
+}
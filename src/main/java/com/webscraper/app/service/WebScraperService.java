@@ -1,702 +1,1097 @@
 package com.webscraper.app.service;
 
+import com.webscraper.app.dto.ArticleBatchResult;
 import com.webscraper.app.dto.ArticleContent;
 import com.webscraper.app.dto.DetailedArticle;
 import com.webscraper.app.dto.LinkItem;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 import org.jsoup.select.Elements;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class WebScraperService {
-    public List<LinkItem> extractLinks(String baseUrl) throws IOException {
-        List<LinkItem> links = new ArrayList<>();
-        Set<String> seenUrls = new HashSet<>();
 
-        try {
-            System.out.println("Connecting to: " + baseUrl);
-
-            Document doc = Jsoup.connect(baseUrl)
-                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8,application/signed-exchange;v=b3;q=0.7")
-                    .header("Accept-Language", "en-US,en;q=0.9")
-                    .header("Accept-Encoding", "gzip, deflate, br")
-                    .header("Cache-Control", "no-cache")
-                    .header("Pragma", "no-cache")
-                    .header("Sec-Ch-Ua", "\"Not_A Brand\";v=\"8\", \"Chromium\";v=\"120\", \"Google Chrome\";v=\"120\"")
-                    .header("Sec-Ch-Ua-Mobile", "?0")
-                    .header("Sec-Ch-Ua-Platform", "\"Windows\"")
-                    .header("Sec-Fetch-Dest", "document")
-                    .header("Sec-Fetch-Mode", "navigate")
-                    .header("Sec-Fetch-Site", "none")
-                    .header("Sec-Fetch-User", "?1")
-                    .header("Upgrade-Insecure-Requests", "1")
-                    .referrer("https://www.google.com/")
-                    .timeout(8000) // Increased timeout for better success rate
-                    .followRedirects(true)
-                    .maxBodySize(1024 * 1024) // 1MB max
-                    .ignoreHttpErrors(true) // Don't throw exception on HTTP errors
-                    .get();
-
-            // Check if we got a successful response
-            int statusCode = doc.connection().response().statusCode();
-            if (statusCode == 403) {
-                throw new IOException("Access denied (403). The website is blocking automated requests. Try a different website or check if the URL is correct.");
-            } else if (statusCode == 404) {
-                throw new IOException("Page not found (404). Please check the URL and try again.");
-            } else if (statusCode == 500) {
-                throw new IOException("Server error (500). The website is experiencing issues. Please try again later.");
-            } else if (statusCode >= 400) {
-                throw new IOException("HTTP error " + statusCode + ". The website returned an error response.");
-            }
-
-            System.out.println("Successfully connected. Status: " + statusCode + ". Parsing links...");
-
-            // Debug: Print some HTML structure info
-            System.out.println("Page title: " + doc.title());
-            System.out.println("HTML body length: " + doc.body().html().length() + " characters");
-
-            // Get base URI for resolving relative URLs
-            String baseUri = doc.baseUri();
-            if (baseUri.isEmpty()) {
-                baseUri = baseUrl;
-            }
-
-            // Try multiple link selectors, prioritizing news content areas
-            Elements linkElements = new Elements();
-            String[] newsContentSelectors = {
-                    // Priority 1: Main news content areas
-                    "main a[href]", ".main-content a[href]", ".content a[href]",
-                    "article a[href]", ".article a[href]", ".story a[href]",
-                    ".news a[href]", ".headlines a[href]", ".latest a[href]",
-
-                    // Priority 2: News-specific sections
-                    ".story-card a", ".article-card a", ".news-item a",
-                    ".headline a", ".story-headline a", ".article-title a",
-                    ".post-title a", ".entry-title a",
-
-                    // Priority 3: Common news website structures
-                    "h1 a", "h2 a", "h3 a", ".title a",
-                    "[data-module='story'] a", "[data-component='headline'] a",
-
-                    // Priority 4: Fallback to all links
-                    "a[href]"
-            };
-
-            for (String selector : newsContentSelectors) {
-                linkElements = doc.select(selector);
-                System.out.println("Selector '" + selector + "' found " + linkElements.size() + " elements");
-                if (linkElements.size() > 5) { // Only use if we find a reasonable number
-                    System.out.println("Using selector: " + selector);
-                    break;
-                }
-            }
+    private static final Logger log = LoggerFactory.getLogger(WebScraperService.class);
+
+    public static final int DEFAULT_MAX_LINKS = 25;
+    private static final int MAX_PREVIEW_IMAGES = 3;
+    private static final int MAX_ARTICLE_IMAGES = 5;
+
+    // Selector cascades, tried in order until one matches; see ExtractionProfileCache
+    private static final String[] PREVIEW_CONTENT_SELECTORS = {
+            "article", ".article", ".content", ".article-content",
+            ".story-content", ".post-content", "main", ".main-content",
+            "[role=main]", ".entry-content", ".post", ".story",
+            ".news-content", ".article-body"
+    };
+    private static final String[] PREVIEW_IMAGE_SELECTORS = {
+            "article img[src]", ".article img[src]", ".content img[src]",
+            ".story img[src]", ".news-content img[src]",
+            ".post-content img[src]", ".entry-content img[src]",
+            "main img[src]", ".main-content img[src]",
+            "img[src]" // fallback to all images
+    };
+    private static final int CHARSET_SNIFF_BYTES = 5 * 1024;
+    private static final Pattern META_CHARSET = Pattern.compile("<meta[^>]+charset\\s*=\\s*[\"']?([\\w.:-]+)", Pattern.CASE_INSENSITIVE);
+
+    private final HttpFetcher fetcher;
+    private final HostPolitenessScheduler scheduler;
+    private final DocumentCache documentCache;
+    private final SitemapLinkDiscovery sitemapDiscovery;
+    private final FeedLinkDiscovery feedDiscovery;
+    private final LinkPrefetcher prefetcher;
+    private final SeenUrlStore seenUrlStore;
+    private final ExtractionProfileCache profiles;
+    private final LinkSnapshotStore linkSnapshots;
+    private final ArticleFieldExtractor fieldExtractor;
+    private final LinkCandidateScorer linkScorer = new LinkCandidateScorer();
+    private final UrlClassifier urlClassifier = new UrlClassifier();
+    private final BoilerplateFilter boilerplate = new BoilerplateFilter();
+    private final ReadabilityExtractor readability = new ReadabilityExtractor(urlClassifier, boilerplate);
+    private final PublishDateNormalizer dateNormalizer = new PublishDateNormalizer();
+
+    public WebScraperService() {
+        this(new HttpFetcher(new HttpResponseCache()), new HostPolitenessScheduler(), new DocumentCache(),
+                openDefaultSeenUrlStore(), new ExtractionProfileCache(), new LinkSnapshotStore());
+    }
 
-            // If still no good results, try news-specific areas
-            if (linkElements.size() < 5) {
-                System.out.println("Trying news-specific area selectors...");
-                String[] newsAreaSelectors = {
-                        ".top-stories a", ".breaking-news a", ".latest-news a",
-                        ".featured a", ".trending a", ".popular a",
-                        ".homepage a", ".front-page a"
-                };
-
-                for (String selector : newsAreaSelectors) {
-                    Elements elements = doc.select(selector);
-                    if (elements.size() > 0) {
-                        linkElements.addAll(elements);
-                        System.out.println("Added " + elements.size() + " from " + selector);
-                    }
-                }
-            }
+    public WebScraperService(HttpFetcher fetcher, HostPolitenessScheduler scheduler) {
+        this(fetcher, scheduler, new DocumentCache());
+    }
 
-            // Debug: Print first few elements found
-            if (!linkElements.isEmpty()) {
-                System.out.println("Sample of found elements:");
-                for (int i = 0; i < Math.min(3, linkElements.size()); i++) {
-                    Element el = linkElements.get(i);
-                    System.out.println("  " + i + ": " + el.tagName() + " - " + el.attr("href") + " - " + el.text().substring(0, Math.min(50, el.text().length())));
-                }
-            }
+    public WebScraperService(HttpFetcher fetcher, HostPolitenessScheduler scheduler, DocumentCache documentCache) {
+        this(fetcher, scheduler, documentCache, null);
+    }
 
-            int validLinks = 0;
-            for (Element link : linkElements) {
-                String href = "";
+    /** @param seenUrlStore analyzed articles are recorded here; null to keep no history */
+    public WebScraperService(HttpFetcher fetcher, HostPolitenessScheduler scheduler, DocumentCache documentCache,
+                             SeenUrlStore seenUrlStore) {
+        this(fetcher, scheduler, documentCache, seenUrlStore, new ExtractionProfileCache(null));
+    }
 
-                // Try different ways to get the URL
-                if (link.hasAttr("href")) {
-                    href = link.attr("abs:href");
-                } else if (link.hasAttr("data-href")) {
-                    href = link.attr("data-href");
-                } else if (link.hasAttr("data-link")) {
-                    href = link.attr("data-link");
-                }
+    /** @param profiles selectors learned per host; the default constructor keeps them on disk */
+    public WebScraperService(HttpFetcher fetcher, HostPolitenessScheduler scheduler, DocumentCache documentCache,
+                             SeenUrlStore seenUrlStore, ExtractionProfileCache profiles) {
+        this(fetcher, scheduler, documentCache, seenUrlStore, profiles,
+                new LinkSnapshotStore(null, LinkSnapshotStore.DEFAULT_MAX_LINKS_PER_SEED));
+    }
 
-                // Handle relative URLs manually if needed
-                if (!href.startsWith("http") && href.startsWith("/")) {
-                    href = baseUrl + href;
-                }
+    /** @param linkSnapshots links each seed showed before; the default constructor keeps them on disk */
+    public WebScraperService(HttpFetcher fetcher, HostPolitenessScheduler scheduler, DocumentCache documentCache,
+                             SeenUrlStore seenUrlStore, ExtractionProfileCache profiles,
+                             LinkSnapshotStore linkSnapshots) {
+        this.fetcher = fetcher;
+        this.scheduler = scheduler;
+        this.documentCache = documentCache;
+        this.seenUrlStore = seenUrlStore;
+        this.profiles = profiles;
+        this.linkSnapshots = linkSnapshots;
+        this.fieldExtractor = new ArticleFieldExtractor(profiles, urlClassifier, boilerplate);
+        this.sitemapDiscovery = new SitemapLinkDiscovery(this::fetch);
+        this.feedDiscovery = new FeedLinkDiscovery(this::fetch);
+        this.prefetcher = new LinkPrefetcher(url -> loadPage(contentRequest(url)));
+    }
 
-                String text = link.text().trim();
-
-                // Filter valid links
-                if (!href.isEmpty() && !seenUrls.contains(href) && isValidLink(href, baseUrl)) {
-                    seenUrls.add(href);
-
-                    if (text.isEmpty()) {
-                        text = link.attr("title");
-                        if (text.isEmpty()) {
-                            text = link.attr("alt");
-                            if (text.isEmpty()) {
-                                String urlPart = href.substring(href.lastIndexOf('/') + 1);
-                                text = urlPart.isEmpty() ? ("Link " + (validLinks + 1)) : urlPart;
-                            }
-                        }
-                    }
+    // History is a convenience; without a writable home directory we run without it
+    private static SeenUrlStore openDefaultSeenUrlStore() {
+        try {
+            return new SeenUrlStore();
+        } catch (IOException e) {
+            log.warn("Seen-URL history unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
 
-                    // Limit title length
-                    if (text.length() > 100) {
-                        text = text.substring(0, 97) + "...";
-                    }
+    public HostPolitenessScheduler getScheduler() {
+        return scheduler;
+    }
 
-                    links.add(new LinkItem(text, href));
-                    validLinks++;
+    /** Pages shared by {@link #extractContent} and {@link #extractDetailedArticle} */
+    public DocumentCache getDocumentCache() {
+        return documentCache;
+    }
 
-                    // Limit number of links to focus on latest articles
-                    if (links.size() >= 25) { // Reduced from 50 to focus on recent content
-                        System.out.println("Limiting to first 25 latest article links");
-                        break;
-                    }
-                }
-            }
+    /** Articles analyzed in this and earlier sessions, or null if history is off */
+    public SeenUrlStore getSeenUrlStore() {
+        return seenUrlStore;
+    }
 
-            System.out.println("Extracted " + validLinks + " valid links");
+    public ExtractionProfileCache getExtractionProfiles() {
+        return profiles;
+    }
 
-            if (links.isEmpty()) {
-                // Provide more detailed debugging info
-                String debugInfo = "Debug information:\n" +
-                        "• Page title: " + doc.title() + "\n" +
-                        "• HTML body size: " + doc.body().html().length() + " characters\n" +
-                        "• Total elements found: " + linkElements.size() + "\n" +
-                        "• Base URL: " + baseUrl + "\n" +
-                        "• Response status: " + statusCode;
+    public BoilerplateFilter getBoilerplateFilter() {
+        return boilerplate;
+    }
 
-                System.out.println(debugInfo);
+    /** True if the article was analyzed before, in this or an earlier session */
+    public boolean isAlreadyAnalyzed(String url) {
+        return seenUrlStore != null && seenUrlStore.mightContain(url);
+    }
 
-                throw new IOException("No valid links found on this page.\n\n" + debugInfo + "\n\n" +
-                        "This could mean:\n" +
-                        "1. The website uses JavaScript to load content dynamically\n" +
-                        "2. The website structure has changed\n" +
-                        "3. The website is serving different content to automated requests\n\n" +
-                        "Working alternatives: BBC.com, CNN.com, Reuters.com, NBCNews.com");
-            }
+    public LinkSnapshotStore getLinkSnapshots() {
+        return linkSnapshots;
+    }
 
-            return links;
+    UrlClassifier getUrlClassifier() {
+        return urlClassifier;
+    }
 
-        } catch (IOException e) {
-            System.err.println("IOException while connecting to " + baseUrl + ": " + e.getMessage());
-
-            // Provide more specific error messages
-            if (e.getMessage().contains("403")) {
-                throw new IOException("Access Forbidden (403): The website '" + getDomainFromUrl(baseUrl) + "' is blocking automated requests.\n\n" +
-                        "Suggestions:\n" +
-                        "• Try websites like: bbc.com, cnn.com, reuters.com, theguardian.com\n" +
-                        "• Some news websites block scrapers to protect their content\n" +
-                        "• The Hindu works because it allows automated access");
-            } else if (e.getMessage().contains("timeout") || e.getMessage().contains("timed out")) {
-                throw new IOException("Connection timeout: The website is taking too long to respond.\n" +
-                        "Please check your internet connection and try again.");
-            } else {
-                throw new IOException("Failed to connect to '" + getDomainFromUrl(baseUrl) + "'.\n" +
-                        "Error: " + e.getMessage() + "\n\n" +
-                        "Please check:\n" +
-                        "• The URL is correct and accessible\n" +
-                        "• Your internet connection\n" +
-                        "• Try a different website like BBC.com which is known to work");
-            }
-        } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            throw new IOException("Unexpected error occurred while accessing '" + getDomainFromUrl(baseUrl) + "': " + e.getMessage());
+    public LinkPrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    /**
+     * Warm the document cache for the first {@code count} links in the background, so
+     * opening one of them with {@link #extractContent} needs no fetch. Replaces any
+     * earlier prefetch batch.
+     */
+    public void prefetchLinks(List<LinkItem> links, int count) {
+        List<String> urls = new ArrayList<>();
+        for (LinkItem link : links.subList(0, Math.min(count, links.size()))) {
+            urls.add(link.getUrl());
         }
+        prefetcher.prefetch(urls);
     }
 
-    private String getDomainFromUrl(String url) {
+    /** Stop prefetching everything but the link the user just selected */
+    public void cancelPrefetchExcept(String url) {
+        prefetcher.cancelAllExcept(url);
+    }
+
+    public void cancelPrefetch() {
+        prefetcher.cancelAll();
+    }
+
+    public List<LinkItem> extractLinks(String baseUrl) throws IOException {
+        return extractLinks(baseUrl, LinkDiscoveryMode.PAGE);
+    }
+
+    public List<LinkItem> extractLinks(String baseUrl, LinkDiscoveryMode mode) throws IOException {
+        return extractLinks(baseUrl, mode, DEFAULT_MAX_LINKS);
+    }
+
+    public List<LinkItem> extractLinks(String baseUrl, LinkDiscoveryMode mode, int maxLinks) throws IOException {
+        return extractLinks(baseUrl, mode, maxLinks, false);
+    }
+
+    /**
+     * Collect up to maxLinks links; finding none is an error with debugging details.
+     * With skipAnalyzed, articles analyzed in earlier sessions are left out and the
+     * budget is filled with new ones.
+     */
+    public List<LinkItem> extractLinks(String baseUrl, LinkDiscoveryMode mode, int maxLinks, boolean skipAnalyzed)
+            throws IOException {
+        checkMaxLinks(maxLinks);
         try {
-            URI uri = URI.create(url);
-            return uri.getHost();
+            LinkSource source = openLinks(baseUrl, mode, maxLinks, skipAnalyzed);
+            List<LinkItem> links;
+            try (Stream<LinkItem> stream = source.links) {
+                links = stream.collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            if (links.isEmpty()) {
+                String debugInfo = source.debugInfo.get();
+                log.debug("No links found on {}\n{}", baseUrl, debugInfo);
+                throw noLinksFound(debugInfo);
+            }
+            return links;
         } catch (Exception e) {
-            return url;
+            throw linkError(baseUrl, e);
         }
     }
 
-    private boolean isValidLink(String href, String baseUrl) {
+    /**
+     * The links {@link #extractLinks(String, LinkDiscoveryMode, int)} finds that the
+     * seed did not show on any earlier call, for monitoring a page between runs. All
+     * found links are recorded in the seed's snapshot; the first call for a seed
+     * returns every link, and later calls may return an empty list.
+     */
+    public List<LinkItem> extractNewLinks(String baseUrl, LinkDiscoveryMode mode, int maxLinks) throws IOException {
+        List<LinkItem> links = extractLinks(baseUrl, mode, maxLinks);
+        List<LinkItem> fresh = linkSnapshots.diff(baseUrl, links);
+        log.info("{} of {} links on {} are new since the last run", fresh.size(), links.size(), baseUrl);
+        return fresh;
+    }
+
+    public List<LinkItem> extractLinks(Collection<String> seeds, LinkDiscoveryMode mode, int maxLinksPerSeed)
+            throws IOException {
+        return extractLinks(seeds, mode, maxLinksPerSeed, false);
+    }
+
+    /**
+     * Links from several seed pages in one list, freshest first. Seeds are fetched
+     * concurrently, each host still limited by the scheduler, and a link found on
+     * more than one seed is listed once. A link's freshness is its sitemap or feed
+     * date, else the date in its path, which is then set as its publish time. Dated
+     * links come first, newest first; undated links follow by their rank on their own
+     * page, taking the seeds in turn. A seed that fails is logged and skipped; the
+     * first error is only thrown when no seed produced links.
+     */
+    public List<LinkItem> extractLinks(Collection<String> seeds, LinkDiscoveryMode mode, int maxLinksPerSeed,
+                                       boolean skipAnalyzed) throws IOException {
+        checkMaxLinks(maxLinksPerSeed);
+        List<String> distinctSeeds = seeds.stream().distinct().collect(Collectors.toList());
+        List<RankedLink> ranked = new ArrayList<>();
+        IOException firstFailure = null;
+
+        ExecutorService executor = TaskExecutors.newTaskExecutor("seed-links");
         try {
-            if (href == null || href.trim().isEmpty()) {
-                return false;
+            List<Future<List<LinkItem>>> results = new ArrayList<>();
+            for (String seed : distinctSeeds) {
+                results.add(executor.submit(() -> extractLinks(seed, mode, maxLinksPerSeed, skipAnalyzed)));
+            }
+            for (int seedIndex = 0; seedIndex < results.size(); seedIndex++) {
+                try {
+                    List<LinkItem> links = results.get(seedIndex).get();
+                    for (int position = 0; position < links.size(); position++) {
+                        ranked.add(new RankedLink(withPathDate(links.get(position)), position, seedIndex));
+                    }
+                } catch (ExecutionException e) {
+                    IOException failure = e.getCause() instanceof IOException
+                            ? (IOException) e.getCause() : new IOException(e.getCause());
+                    log.warn("No links from {}: {}", distinctSeeds.get(seedIndex), failure.getMessage());
+                    if (firstFailure == null) {
+                        firstFailure = failure;
+                    }
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while extracting links");
+        } finally {
+            executor.shutdownNow();
+        }
+        if (ranked.isEmpty() && firstFailure != null) {
+            throw firstFailure;
+        }
 
-            // Basic URL validation
-            if (!href.startsWith("http")) {
-                return false;
+        // Sorting first means a link's dated sighting wins over an undated one
+        ranked.sort(RankedLink.FRESHEST_FIRST);
+        FingerprintSet seenUrls = new FingerprintSet(ranked.size());
+        List<LinkItem> merged = new ArrayList<>();
+        for (RankedLink link : ranked) {
+            if (seenUrls.add(UrlCanonicalizer.fingerprint(link.item.getUrl()))) {
+                merged.add(link.item);
             }
+        }
+        log.info("Merged {} links from {} seeds", merged.size(), distinctSeeds.size());
+        return merged;
+    }
 
-            URI uri = URI.create(href);
-            URI baseUri = URI.create(baseUrl);
+    private LinkItem withPathDate(LinkItem link) {
+        if (link.getPublishedAt() != null) {
+            return link;
+        }
+        Instant pathDate = urlClassifier.getPathDate(link.getUrl());
+        return pathDate == null ? link : new LinkItem(link.getTitle(), link.getUrl(), pathDate);
+    }
 
-            // Check if it's from the same domain or subdomain
-            String linkHost = uri.getHost();
-            String baseHost = baseUri.getHost();
+    // A link with its rank on its own seed page, for merging several seeds
+    private static final class RankedLink {
+        static final Comparator<RankedLink> FRESHEST_FIRST = Comparator
+                .comparing((RankedLink link) -> link.item.getPublishedAt(),
+                        Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparingInt(link -> link.position)
+                .thenComparingInt(link -> link.seedIndex);
+
+        final LinkItem item;
+        final int position;
+        final int seedIndex;
+
+        RankedLink(LinkItem item, int position, int seedIndex) {
+            this.item = item;
+            this.position = position;
+            this.seedIndex = seedIndex;
+        }
+    }
+
+    /**
+     * Links in discovery order, produced as the stream is consumed, up to maxLinks
+     * (pass {@link Integer#MAX_VALUE} for all of them). The page is requested before
+     * this returns, so connection and HTTP errors are thrown here; errors while reading
+     * the rest surface as {@link UncheckedIOException}. In streaming mode the first
+     * links arrive while the page is still downloading, so work on them can start
+     * early. The stream holds the connection and a host slot until it is closed.
+     */
+    public Stream<LinkItem> streamLinks(String baseUrl, LinkDiscoveryMode mode, int maxLinks) throws IOException {
+        return streamLinks(baseUrl, mode, maxLinks, false);
+    }
+
+    /** As {@link #streamLinks(String, LinkDiscoveryMode, int)}, optionally leaving out analyzed articles */
+    public Stream<LinkItem> streamLinks(String baseUrl, LinkDiscoveryMode mode, int maxLinks, boolean skipAnalyzed)
+            throws IOException {
+        checkMaxLinks(maxLinks);
+        try {
+            return openLinks(baseUrl, mode, maxLinks, skipAnalyzed).links;
+        } catch (Exception e) {
+            throw linkError(baseUrl, e);
+        }
+    }
+
+    private LinkSource openLinks(String baseUrl, LinkDiscoveryMode mode, int maxLinks, boolean skipAnalyzed)
+            throws IOException {
+        log.info("Connecting to: {} ({})", baseUrl, mode);
+        boolean filter = skipAnalyzed && seenUrlStore != null;
+
+        if (mode == LinkDiscoveryMode.STREAMING) {
+            return streamedPageLinks(baseUrl, maxLinks, filter);
+        } else if (mode == LinkDiscoveryMode.SITEMAP) {
+            return sitemapLinks(baseUrl, maxLinks, filter);
+        } else if (mode == LinkDiscoveryMode.FEED) {
+            return feedLinks(baseUrl, maxLinks, filter);
+        }
+        return pageLinks(baseUrl, maxLinks, filter);
+    }
 
-            if (linkHost == null || baseHost == null) {
-                return false;
+    // Sitemap and feed entries come as a date-sorted list; drop analyzed ones before the cut
+    private List<LinkItem> withoutAnalyzed(List<LinkItem> links, int maxLinks) {
+        List<LinkItem> kept = new ArrayList<>();
+        for (LinkItem link : links) {
+            if (kept.size() >= maxLinks) {
+                break;
+            }
+            if (!isAlreadyAnalyzed(link.getUrl())) {
+                kept.add(link);
             }
+        }
+        log.info("Skipped {} links; kept {} not yet analyzed", links.size() - kept.size(), kept.size());
+        return kept;
+    }
 
-            // Allow same domain and subdomains
-            boolean sameDomain = linkHost.equals(baseHost) || linkHost.endsWith("." + baseHost);
+    private static void checkMaxLinks(int maxLinks) {
+        if (maxLinks <= 0) {
+            throw new IllegalArgumentException("maxLinks must be positive: " + maxLinks);
+        }
+    }
 
-            // Filter out non-article links
-            String path = uri.getPath().toLowerCase();
-            String fullUrl = href.toLowerCase();
+    private IOException linkError(String baseUrl, Exception e) {
+        if (!(e instanceof IOException)) {
+            log.error("Unexpected error while accessing {}", baseUrl, e);
+            return new IOException("Unexpected error occurred while accessing '" + getDomainFromUrl(baseUrl) + "': " + e.getMessage());
+        }
+        log.warn("IOException while connecting to {}: {}", baseUrl, e.getMessage());
+
+        // Provide more specific error messages
+        if (e.getMessage().contains("403")) {
+            return new IOException("Access Forbidden (403): The website '" + getDomainFromUrl(baseUrl) + "' is blocking automated requests.\n\n" +
+                    "Suggestions:\n" +
+                    "• Try websites like: bbc.com, cnn.com, reuters.com, theguardian.com\n" +
+                    "• Some news websites block scrapers to protect their content\n" +
+                    "• The Hindu works because it allows automated access");
+        } else if (e.getMessage().contains("timeout") || e.getMessage().contains("timed out")) {
+            return new IOException("Connection timeout: The website is taking too long to respond.\n" +
+                    "Please check your internet connection and try again.");
+        } else {
+            return new IOException("Failed to connect to '" + getDomainFromUrl(baseUrl) + "'.\n" +
+                    "Error: " + e.getMessage() + "\n\n" +
+                    "Please check:\n" +
+                    "• The URL is correct and accessible\n" +
+                    "• Your internet connection\n" +
+                    "• Try a different website like BBC.com which is known to work");
+        }
+    }
 
-            // Skip common non-article pages
-            String[] skipPatterns = {
-                    "/about", "/contact", "/privacy", "/terms", "/policy",
-                    "/subscribe", "/newsletter", "/advertise", "/jobs", "/careers",
-                    "/help", "/support", "/faq", "/sitemap", "/search",
-                    "/login", "/register", "/account", "/profile",
-                    "/tag/", "/tags/", "/category/", "/author/", "/page/",
-                    "/gallery", "/video", "/photos", "/images",
-                    "/rss", "/feed", "/xml", "/api/",
-                    "facebook.com", "twitter.com", "instagram.com", "youtube.com",
-                    "mailto:", "javascript:", "tel:"
-            };
+    private LinkSource pageLinks(String baseUrl, int maxLinks, boolean skipAnalyzed) throws IOException {
+        FetchResponse response = fetch(linkPageRequest(baseUrl));
+
+        // Check if we got a successful response
+        int statusCode = response.getStatusCode();
+        checkLinkPageStatus(statusCode);
+
+        // A feed URL entered directly needs no selector heuristics
+        if (FeedLinkDiscovery.isFeed(response)) {
+            log.debug("Response is a feed; reading its items");
+            List<LinkItem> items = feedDiscovery.parse(baseUrl, response, skipAnalyzed ? Integer.MAX_VALUE : maxLinks);
+            return new LinkSource((skipAnalyzed ? withoutAnalyzed(items, maxLinks) : items).stream(),
+                    () -> "Debug information:\n" +
+                            "• The feed has no items\n" +
+                            "• Base URL: " + baseUrl);
+        }
 
-            for (String pattern : skipPatterns) {
-                if (fullUrl.contains(pattern)) {
-                    return false;
-                }
-            }
+        Document doc = response.parse();
 
-            // Prefer URLs that look like news articles
-            String[] articlePatterns = {
-                    "/news/", "/article/", "/story/", "/post/", "/politics/",
-                    "/world/", "/business/", "/sports/", "/technology/", "/health/",
-                    "/entertainment/", "/science/", "/opinion/", "/analysis/",
-                    "/breaking", "/latest", "/today", "/live"
-            };
+        // One pass over the DOM ranks every anchor by its surrounding news containers
+        List<LinkCandidateScorer.Candidate> candidates = linkScorer.rank(doc.body());
 
-            boolean looksLikeArticle = false;
-            for (String pattern : articlePatterns) {
-                if (fullUrl.contains(pattern)) {
-                    looksLikeArticle = true;
-                    break;
-                }
+        if (log.isDebugEnabled()) {
+            log.debug("Connected to {} (status {}, {} bytes): \"{}\", scored {} candidate links",
+                    baseUrl, statusCode, response.getBody().length, doc.title(), candidates.size());
+            for (int i = 0; i < Math.min(3, candidates.size()); i++) {
+                Element el = candidates.get(i).getAnchor();
+                String text = el.text();
+                log.debug("  {}: score {} - {} - {}", i, candidates.get(i).getScore(), el.attr("href"),
+                        text.substring(0, Math.min(50, text.length())));
             }
+        }
 
-            // Also check for date patterns in URL (common in news sites)
-            boolean hasDatePattern = path.matches(".*/(20\\d{2}|\\d{4})/(\\d{1,2}|\\d{2})/(\\d{1,2}|\\d{2})/.*") ||
-                    path.matches(".*/(20\\d{2})/(\\d{1,2})/.*");
+        Iterator<Element> anchors = candidates.stream().map(LinkCandidateScorer.Candidate::getAnchor).iterator();
+        LinkIterator links = new LinkIterator(anchors, baseUrl, maxLinks, skipAnalyzed, (count, full) -> {
+            if (full) {
+                log.info("Extracted {} valid links (limited to {})", count, maxLinks);
+            } else {
+                log.info("Extracted {} valid links", count);
+            }
+        });
+        Stream<LinkItem> stream = streamOf(links).onClose(links::finish);
+
+        return new LinkSource(stream, () -> "Debug information:\n" +
+                "• Page title: " + doc.title() + "\n" +
+                "• HTML size: " + response.getBody().length + " bytes\n" +
+                "• Total elements found: " + candidates.size() + "\n" +
+                "• Base URL: " + baseUrl + "\n" +
+                "• Response status: " + statusCode);
+    }
 
-            return sameDomain &&
-                    !href.contains("#") && // Skip anchors
-                    !href.toLowerCase().matches(".*\\.(pdf|doc|docx|xls|xlsx|zip|rar|exe|jpg|jpeg|png|gif|mp4|mp3)$") && // Skip files
-                    href.length() < 500 && // Skip very long URLs
-                    (looksLikeArticle || hasDatePattern || path.length() > 10); // Prefer article-like URLs
+    /**
+     * Parse the page incrementally as bytes arrive and hand out links as their anchors
+     * complete. Reading stops as soon as the link budget is filled or the stream is
+     * closed, so long footers and inline scripts after the article list are never
+     * downloaded. Completed elements are dropped as we go to keep the partial DOM
+     * small. Anchors inside nav, header and footer are skipped because there is no
+     * whole-page ranking to push them down.
+     */
+    private LinkSource streamedPageLinks(String baseUrl, int maxLinks, boolean skipAnalyzed) throws IOException {
+        HostPolitenessScheduler.Permit permit = acquirePermit(baseUrl);
+        FetchStream stream = null;
+        StreamParser parser = null;
+        try {
+            stream = fetcher.open(linkPageRequest(baseUrl));
+            int statusCode = stream.getStatusCode();
+            checkLinkPageStatus(statusCode);
+
+            BufferedInputStream body = new BufferedInputStream(stream.getBody(), CHARSET_SNIFF_BYTES);
+            Charset charset = charsetOf(stream.getCharset(), body);
+            parser = new StreamParser(Parser.htmlParser())
+                    .parse(new BufferedReader(new InputStreamReader(body, charset)), stream.getUrl());
+
+            // The connection and host slot go back as soon as the links run out or the
+            // budget is filled, so a consumer fetching from the same host cannot starve
+            StreamedAnchors anchors = new StreamedAnchors(parser.iterator());
+            FetchStream openStream = stream;
+            StreamParser openParser = parser;
+            LinkIterator links = new LinkIterator(anchors, baseUrl, maxLinks, skipAnalyzed, (count, full) -> {
+                openParser.close();
+                boolean stoppedEarly = !openStream.isComplete();
+                openStream.close();
+                permit.close();
+                log.info("Streamed {} anchors, extracted {} valid links{}", anchors.seen, count,
+                        stoppedEarly ? " (stopped reading early)" : "");
+            });
+            Stream<LinkItem> items = streamOf(links).onClose(links::finish);
+
+            return new LinkSource(items, () -> "Debug information:\n" +
+                    "• Anchors scanned: " + anchors.seen + "\n" +
+                    "• Base URL: " + baseUrl + "\n" +
+                    "• Response status: " + statusCode);
+        } catch (IOException | RuntimeException e) {
+            if (parser != null) {
+                parser.close();
+            }
+            if (stream != null) {
+                stream.close();
+            }
+            permit.close();
+            throw e;
+        }
+    }
 
-        } catch (Exception e) {
-            System.err.println("Error validating link " + href + ": " + e.getMessage());
-            return false;
+    private LinkSource sitemapLinks(String baseUrl, int maxLinks, boolean skipAnalyzed) throws IOException {
+        List<LinkItem> links = sitemapDiscovery.discover(baseUrl, skipAnalyzed ? Integer.MAX_VALUE : maxLinks);
+        log.info("Extracted {} links from sitemaps", links.size());
+        if (skipAnalyzed) {
+            links = withoutAnalyzed(links, maxLinks);
         }
+        return new LinkSource(links.stream(), () -> "Debug information:\n" +
+                "• No page entries in the sitemaps listed by robots.txt or /sitemap.xml\n" +
+                "• Base URL: " + baseUrl);
     }
 
-    public ArticleContent extractContent(String url) throws IOException {
-        try {
-            System.out.println("Extracting content from: " + url);
+    private LinkSource feedLinks(String baseUrl, int maxLinks, boolean skipAnalyzed) throws IOException {
+        List<LinkItem> links = feedDiscovery.discover(baseUrl, skipAnalyzed ? Integer.MAX_VALUE : maxLinks);
+        log.info("Extracted {} links from feed", links.size());
+        if (skipAnalyzed) {
+            links = withoutAnalyzed(links, maxLinks);
+        }
+        return new LinkSource(links.stream(), () -> "Debug information:\n" +
+                "• The feed has no items\n" +
+                "• Base URL: " + baseUrl);
+    }
 
-            // Add a small delay to be more respectful to the server
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-
-            Document doc = Jsoup.connect(url)
-                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-                    .header("Accept-Language", "en-US,en;q=0.9")
-                    .header("Accept-Encoding", "gzip, deflate, br")
-                    .header("Cache-Control", "no-cache")
-                    .header("Sec-Fetch-Dest", "document")
-                    .header("Sec-Fetch-Mode", "navigate")
-                    .header("Sec-Fetch-Site", "same-origin")
-                    .referrer(url)
-                    .timeout(10000) // 10 seconds for content loading
-                    .followRedirects(true)
-                    .maxBodySize(2 * 1024 * 1024) // 2MB max for content pages
-                    .ignoreHttpErrors(true)
-                    .get();
+    private static Stream<LinkItem> streamOf(Iterator<LinkItem> links) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(links, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
 
-            // Check response status
-            int statusCode = doc.connection().response().statusCode();
-            if (statusCode >= 400) {
-                throw new IOException("Failed to load page content (HTTP " + statusCode + ")");
-            }
+    // A lazily produced stream of links, and what to report if it turns out empty
+    private static final class LinkSource {
+        final Stream<LinkItem> links;
+        final Supplier<String> debugInfo;
 
-            // Extract title
-            String title = doc.title();
-            if (title == null || title.trim().isEmpty()) {
-                title = "No Title Available";
-            }
+        LinkSource(Stream<LinkItem> links, Supplier<String> debugInfo) {
+            this.links = links;
+            this.debugInfo = debugInfo;
+        }
+    }
 
-            // Extract text content with better selectors
-            StringBuilder textBuilder = new StringBuilder();
+    private interface LinkCompletion {
+        void finished(int count, boolean full);
+    }
 
-            // Try multiple content selectors in order of preference
-            String[] contentSelectors = {
-                    "article", ".article", ".content", ".article-content",
-                    ".story-content", ".post-content", "main", ".main-content",
-                    "[role=main]", ".entry-content", ".post", ".story",
-                    ".news-content", ".article-body"
-            };
+    // Turns anchors into new, article-like LinkItems on demand, stopping at the budget.
+    // The completion runs once, when the links run out or the stream is closed.
+    private final class LinkIterator implements Iterator<LinkItem> {
+        private final Iterator<Element> anchors;
+        private final String baseUrl;
+        private final int maxLinks;
+        private final boolean skipAnalyzed;
+        private final LinkCompletion completion;
+        private final FingerprintSet seenUrls = new FingerprintSet();
+        private LinkItem next;
+        private int count;
+        private int skipped;
+        private boolean finished;
+
+        LinkIterator(Iterator<Element> anchors, String baseUrl, int maxLinks, boolean skipAnalyzed,
+                     LinkCompletion completion) {
+            this.anchors = anchors;
+            this.baseUrl = baseUrl;
+            this.maxLinks = maxLinks;
+            this.skipAnalyzed = skipAnalyzed;
+            this.completion = completion;
+        }
 
-            Elements contentElements = new Elements();
-            for (String selector : contentSelectors) {
-                contentElements = doc.select(selector);
-                if (!contentElements.isEmpty()) {
-                    System.out.println("Found content using selector: " + selector);
-                    break;
+        @Override
+        public boolean hasNext() {
+            while (next == null && !finished && count < maxLinks && anchors.hasNext()) {
+                next = toLinkItem(anchors.next(), baseUrl, seenUrls, count);
+                if (next != null && skipAnalyzed && isAlreadyAnalyzed(next.getUrl())) {
+                    next = null;
+                    skipped++;
                 }
             }
+            if (next == null) {
+                finish();
+            }
+            return next != null;
+        }
 
-            // Fallback to paragraphs if no main content found
-            if (contentElements.isEmpty()) {
-                contentElements = doc.select("p");
-                System.out.println("Using paragraph fallback, found " + contentElements.size() + " paragraphs");
+        @Override
+        public LinkItem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
+            LinkItem item = next;
+            next = null;
+            count++;
+            return item;
+        }
 
-            for (Element element : contentElements) {
-                String text = element.text().trim();
-                if (!text.isEmpty() && text.length() > 20) { // Only meaningful paragraphs
-                    textBuilder.append(text).append("\n\n");
+        synchronized void finish() {
+            if (!finished) {
+                finished = true;
+                if (skipped > 0) {
+                    log.info("Skipped {} already analyzed links", skipped);
                 }
+                completion.finished(count, count >= maxLinks);
             }
+        }
+    }
 
-            String content = textBuilder.toString().trim();
-            if (content.isEmpty()) {
-                content = "No readable content found on this page. This might be because:\n" +
-                        "• The page uses JavaScript to load content\n" +
-                        "• The content is protected or behind a paywall\n" +
-                        "• The page structure is not recognized by the scraper";
+    // Anchors outside page chrome from a streaming parse. Each element is removed once
+    // the next one is requested; an anchor has to stay attached until its URL is resolved.
+    // An anchor's children complete before it does, so they are left for the anchor's
+    // text and go when it does.
+    private static final class StreamedAnchors implements Iterator<Element> {
+        private final Iterator<Element> elements;
+        private Element next;
+        private Element handedOut;
+        int seen;
+
+        StreamedAnchors(Iterator<Element> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (handedOut != null) {
+                    handedOut.remove();
+                    handedOut = null;
+                }
+                if (!elements.hasNext()) {
+                    return false;
+                }
+                Element element = elements.next();
+                if (element.normalName().equals("a") && !isInPageChrome(element)) {
+                    next = element;
+                    seen++;
+                } else if (!isInAnchor(element)) {
+                    element.remove(); // Completed subtrees are no longer needed
+                }
             }
+            return true;
+        }
 
-            // Extract images with better filtering for news content
-            List<String> imageUrls = new ArrayList<>();
+        @Override
+        public Element next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            handedOut = next;
+            next = null;
+            return handedOut;
+        }
+    }
 
-            // Try to find images in content areas first
-            Elements contentImages = new Elements();
-            String[] imageSelectors = {
-                    "article img[src]", ".article img[src]", ".content img[src]",
-                    ".story img[src]", ".news-content img[src]",
-                    ".post-content img[src]", ".entry-content img[src]",
-                    "main img[src]", ".main-content img[src]",
-                    "img[src]" // fallback to all images
-            };
+    // Crawler hook: fetch and parse a listing page with the same headers as a link scrape
+    Document loadListingPage(String url) throws IOException {
+        FetchResponse response = fetch(linkPageRequest(url));
+        checkLinkPageStatus(response.getStatusCode());
+        return response.parse();
+    }
 
-            for (String selector : imageSelectors) {
-                contentImages = doc.select(selector);
-                System.out.println("Image selector '" + selector + "' found " + contentImages.size() + " images");
-                if (contentImages.size() > 0) {
-                    break;
-                }
+    // Crawler hook: every article link on a parsed page, best ranked first
+    List<LinkItem> rankArticleLinks(Document doc, String baseUrl) {
+        FingerprintSet seenUrls = new FingerprintSet();
+        List<LinkItem> links = new ArrayList<>();
+        for (LinkCandidateScorer.Candidate candidate : linkScorer.rank(doc.body())) {
+            LinkItem item = toLinkItem(candidate.getAnchor(), baseUrl, seenUrls, links.size());
+            if (item != null) {
+                links.add(item);
             }
+        }
+        return links;
+    }
 
-            for (Element img : contentImages) {
-                String src = img.attr("abs:src");
-                if (!src.isEmpty() && isValidImageUrl(src) && isNewsImage(img, src)) {
-                    imageUrls.add(src);
-                    System.out.println("Added image: " + src);
+    private FetchRequest linkPageRequest(String baseUrl) {
+        return FetchRequest.get(baseUrl)
+                .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8,application/signed-exchange;v=b3;q=0.7")
+                .header("Sec-Fetch-Site", "none")
+                .header("Sec-Fetch-User", "?1")
+                .referrer("https://www.google.com/")
+                .timeout(8000) // Increased timeout for better success rate
+                .maxBodySize(1024 * 1024); // 1MB max
+    }
 
-                    // Limit number of images to prevent overload
-                    if (imageUrls.size() >= 3) { // Reduced to 3 for better performance
-                        break;
-                    }
+    private void checkLinkPageStatus(int statusCode) throws IOException {
+        if (statusCode == 403) {
+            throw new IOException("Access denied (403). The website is blocking automated requests. Try a different website or check if the URL is correct.");
+        } else if (statusCode == 404) {
+            throw new IOException("Page not found (404). Please check the URL and try again.");
+        } else if (statusCode == 500) {
+            throw new IOException("Server error (500). The website is experiencing issues. Please try again later.");
+        } else if (statusCode >= 400) {
+            throw new IOException("HTTP error " + statusCode + ". The website returned an error response.");
+        }
+    }
+
+    private IOException noLinksFound(String debugInfo) {
+        return new IOException("No valid links found on this page.\n\n" + debugInfo + "\n\n" +
+                "This could mean:\n" +
+                "1. The website uses JavaScript to load content dynamically\n" +
+                "2. The website structure has changed\n" +
+                "3. The website is serving different content to automated requests\n\n" +
+                "Working alternatives: BBC.com, CNN.com, Reuters.com, NBCNews.com");
+    }
+
+    // Turn an anchor into a LinkItem, or null if it is not a new, article-like link
+    private LinkItem toLinkItem(Element link, String baseUrl, FingerprintSet seenUrls, int position) {
+        String href = "";
+
+        // Try different ways to get the URL
+        if (link.hasAttr("href")) {
+            href = link.attr("abs:href");
+        } else if (link.hasAttr("data-href")) {
+            href = link.attr("data-href");
+        } else if (link.hasAttr("data-link")) {
+            href = link.attr("data-link");
+        }
+
+        // Handle relative URLs manually if needed
+        if (!href.startsWith("http") && href.startsWith("/")) {
+            href = baseUrl + href;
+        }
+
+        // Filter valid links; tracking parameters and fragments don't make a new article
+        href = UrlCanonicalizer.canonicalize(href);
+        if (href.isEmpty() || !urlClassifier.isArticleLink(href, baseUrl)
+                || !seenUrls.add(UrlCanonicalizer.fingerprint(href))) {
+            return null;
+        }
+
+        String text = link.text().trim();
+        if (text.isEmpty()) {
+            text = link.attr("title");
+            if (text.isEmpty()) {
+                text = link.attr("alt");
+                if (text.isEmpty()) {
+                    String urlPart = href.substring(href.lastIndexOf('/') + 1);
+                    text = urlPart.isEmpty() ? ("Link " + (position + 1)) : urlPart;
                 }
             }
+        }
 
-            System.out.println("Extracted content: " + content.length() + " characters, " + imageUrls.size() + " images");
-            return new ArticleContent(title, content, imageUrls);
+        // Limit title length
+        if (text.length() > 100) {
+            text = text.substring(0, 97) + "...";
+        }
 
-        } catch (IOException e) {
-            System.err.println("IOException while extracting content from " + url + ": " + e.getMessage());
-            throw new IOException("Failed to load page content: " + e.getMessage());
-        } catch (Exception e) {
-            System.err.println("Unexpected error extracting content: " + e.getMessage());
-            throw new IOException("Error processing page content: " + e.getMessage());
+        return new LinkItem(text, href);
+    }
+
+    private static boolean isInAnchor(Element element) {
+        for (Element parent = element.parent(); parent != null; parent = parent.parent()) {
+            if (parent.normalName().equals("a")) {
+                return true;
+            }
         }
+        return false;
     }
 
-    private boolean isValidImageUrl(String url) {
-        if (url == null || url.trim().isEmpty()) {
-            return false;
+    private static boolean isInPageChrome(Element element) {
+        for (Element parent = element.parent(); parent != null; parent = parent.parent()) {
+            String name = parent.normalName();
+            if (name.equals("nav") || name.equals("footer") || name.equals("header")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Servers often omit the charset header; look for a BOM or meta charset like jsoup does
+    private static Charset charsetOf(String declared, BufferedInputStream body) throws IOException {
+        if (declared != null) {
+            try {
+                return Charset.forName(declared);
+            } catch (IllegalArgumentException e) {
+                // Fall through to sniffing
+            }
+        }
+        body.mark(CHARSET_SNIFF_BYTES);
+        byte[] head = body.readNBytes(CHARSET_SNIFF_BYTES);
+        body.reset();
+        if (head.length >= 3 && (head[0] & 0xff) == 0xEF && (head[1] & 0xff) == 0xBB && (head[2] & 0xff) == 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        Matcher meta = META_CHARSET.matcher(new String(head, StandardCharsets.ISO_8859_1));
+        if (meta.find()) {
+            try {
+                return Charset.forName(meta.group(1));
+            } catch (IllegalArgumentException e) {
+                // Unknown charset name; use the default
+            }
         }
+        return StandardCharsets.UTF_8;
+    }
 
+    // Every page fetch waits its turn on the target host
+    private FetchResponse fetch(FetchRequest request) throws IOException {
+        HostPolitenessScheduler.Permit permit = acquirePermit(request.getUrl());
         try {
-            URI uri = URI.create(url);
-            String lowerUrl = url.toLowerCase();
+            return fetcher.fetch(request);
+        } finally {
+            permit.close();
+        }
+    }
 
-            // Skip common non-content images
-            String[] skipPatterns = {
-                    "logo", "header", "footer", "nav", "menu", "icon", "avatar",
-                    "advertisement", "banner", "sidebar", "widget", "social",
-                    "tracking", "pixel", "analytics", "beacon", "1x1", "spacer"
-            };
+    // Article pages come from the shared cache so a preview and an analysis parse once
+    private DocumentCache.Page loadPage(FetchRequest request) throws IOException {
+        return documentCache.get(request.getUrl(), request.getMaxBodySize(), () -> fetch(request));
+    }
 
-            for (String pattern : skipPatterns) {
-                if (lowerUrl.contains(pattern)) {
-                    return false;
-                }
-            }
+    private HostPolitenessScheduler.Permit acquirePermit(String url) throws IOException {
+        try {
+            return scheduler.acquire(getDomainFromUrl(url));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to fetch " + url);
+        }
+    }
 
-            return lowerUrl.matches(".*\\.(jpg|jpeg|png|gif|webp|svg).*") &&
-                    url.length() < 500 &&
-                    !lowerUrl.contains("data:") && // Skip data URLs
-                    !lowerUrl.contains("base64"); // Skip base64 images
+    private String getDomainFromUrl(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getHost();
         } catch (Exception e) {
-            return false;
+            return url;
         }
     }
 
-    public DetailedArticle extractDetailedArticle(String url) throws IOException {
+    public ArticleContent extractContent(String url) throws IOException {
         try {
-            System.out.println("Extracting detailed article from: " + url);
+            log.debug("Extracting content from: {}", url);
 
-            // Add a small delay to be respectful
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-
-            Document doc = Jsoup.connect(url)
-                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-                    .header("Accept-Language", "en-US,en;q=0.9")
-                    .header("Accept-Encoding", "gzip, deflate, br")
-                    .header("Cache-Control", "no-cache")
-                    .header("Referer", "https://www.google.com/")
-                    .timeout(15000)
-                    .followRedirects(true)
-                    .maxBodySize(3 * 1024 * 1024) // 3MB max for detailed articles
-                    .ignoreHttpErrors(true)
-                    .get();
+            DocumentCache.Page page = loadPage(contentRequest(url));
 
             // Check response status
-            int statusCode = doc.connection().response().statusCode();
+            int statusCode = page.getResponse().getStatusCode();
             if (statusCode >= 400) {
-                throw new IOException("Failed to load article (HTTP " + statusCode + ")");
+                throw new IOException("Failed to load page content (HTTP " + statusCode + ")");
             }
 
-            // Extract headline
-            String headline = extractHeadline(doc);
-
-            // Extract author
-            String author = extractAuthor(doc);
-
-            // Extract publish date
-            String publishDate = extractPublishDate(doc);
-
-            // Extract content
-            String content = extractArticleContent(doc);
+            Document doc = page.getDocument();
+            String host = getDomainFromUrl(url);
 
-            // Extract images
-            List<String> imageUrls = extractArticleImages(doc);
-
-            // Perform sentiment analysis
-            SentimentAnalysis sentiment = analyzeSentiment(content);
+            // Extract title
+            String title = doc.title();
+            if (title == null || title.trim().isEmpty()) {
+                title = "No Title Available";
+            }
 
-            // Calculate word count
-            int wordCount = content.split("\\s+").length;
+            // Score the page's blocks; the selector cascade is the fallback when nothing reads like an article
+            ReadabilityExtractor.Result extracted = readability.extract(doc, MAX_PREVIEW_IMAGES);
+            String content = extracted.isEmpty() ? previewText(doc, host) : extracted.getText();
+            if (content.isEmpty()) {
+                content = "No readable content found on this page. This might be because:\n" +
+                        "• The page uses JavaScript to load content\n" +
+                        "• The content is protected or behind a paywall\n" +
+                        "• The page structure is not recognized by the scraper";
+            }
 
-            System.out.println("Extracted detailed article: " + headline + " by " + author);
-            System.out.println("Word count: " + wordCount + ", Images: " + imageUrls.size() +
-                    ", Sentiment: " + sentiment.getLabel());
+            List<String> imageUrls = extracted.getImageUrls().isEmpty()
+                    ? previewImages(doc, host) : extracted.getImageUrls();
 
-            return new DetailedArticle(headline, author, publishDate, content, imageUrls, sentiment, wordCount);
+            log.info("Extracted content from {}: {} characters, {} images", url, content.length(), imageUrls.size());
+            return new ArticleContent(title, content, imageUrls);
 
         } catch (IOException e) {
-            throw new IOException("Failed to analyze article: " + e.getMessage());
+            log.warn("IOException while extracting content from {}: {}", url, e.getMessage());
+            throw new IOException("Failed to load page content: " + e.getMessage());
         } catch (Exception e) {
-            throw new IOException("Error processing article: " + e.getMessage());
+            log.error("Unexpected error extracting content from {}", url, e);
+            throw new IOException("Error processing page content: " + e.getMessage());
         }
     }
 
-    private String extractHeadline(Document doc) {
-        String headline = "";
+    private String previewText(Document doc, String host) {
+        StringBuilder textBuilder = new StringBuilder();
 
-        // Try multiple selectors for headline
-        String[] headlineSelectors = {
-                "h1", ".headline", ".title", ".article-title", ".story-title",
-                ".post-title", ".entry-title", ".main-title", "[itemprop=headline]",
-                "meta[property='og:title']", "meta[name='twitter:title']"
-        };
+        // Try the selector that worked on this site before, then the others in order of preference
+        Elements contentElements = profiles.firstMatch(host, ExtractionProfileCache.Field.PREVIEW_CONTENT,
+                PREVIEW_CONTENT_SELECTORS, selector -> selectContent(doc, selector));
 
-        for (String selector : headlineSelectors) {
-            Elements elements = doc.select(selector);
-            if (!elements.isEmpty()) {
-                if (selector.startsWith("meta")) {
-                    headline = elements.first().attr("content");
-                } else {
-                    headline = elements.first().text();
-                }
-                if (!headline.isEmpty()) {
-                    break;
-                }
-            }
+        // Fallback to paragraphs if no main content found
+        if (contentElements == null) {
+            contentElements = doc.select("p");
+            log.debug("Using paragraph fallback, found {} paragraphs", contentElements.size());
         }
 
-        // Fallback to document title
-        if (headline.isEmpty()) {
-            headline = doc.title();
+        for (Element element : contentElements) {
+            String text = element.text().trim();
+            if (!text.isEmpty() && text.length() > 20) { // Only meaningful paragraphs
+                textBuilder.append(text).append("\n\n");
+            }
         }
-
-        return headline.isEmpty() ? "No headline found" : headline.trim();
+        return textBuilder.toString().trim();
     }
 
-    private String extractAuthor(Document doc) {
-        String author = "";
+    private List<String> previewImages(Document doc, String host) {
+        // Extract images with better filtering for news content
+        List<String> imageUrls = new ArrayList<>();
 
-        // Try multiple selectors for author
-        String[] authorSelectors = {
-                ".author", ".byline", ".writer", ".journalist", "[itemprop=author]",
-                ".article-author", ".post-author", ".story-author", ".by-author",
-                "meta[name='author']", "meta[property='article:author']"
-        };
+        // Try to find images in content areas first
+        Elements contentImages = profiles.firstMatch(host, ExtractionProfileCache.Field.PREVIEW_IMAGES,
+                PREVIEW_IMAGE_SELECTORS, selector -> {
+                    Elements found = doc.select(selector);
+                    log.debug("Image selector '{}' found {} images", selector, found.size());
+                    return found.isEmpty() ? null : found;
+                });
+        if (contentImages == null) {
+            contentImages = new Elements();
+        }
 
-        for (String selector : authorSelectors) {
-            Elements elements = doc.select(selector);
-            if (!elements.isEmpty()) {
-                if (selector.startsWith("meta")) {
-                    author = elements.first().attr("content");
-                } else {
-                    author = elements.first().text();
-                    // Clean up author text
-                    author = author.replaceAll("(?i)^(by|author|written by):?\\s*", "").trim();
-                }
-                if (!author.isEmpty()) {
+        for (Element img : contentImages) {
+            String src = img.attr("abs:src");
+            if (!src.isEmpty() && urlClassifier.isContentImageUrl(src) && isNewsImage(img)) {
+                imageUrls.add(src);
+                log.debug("Added image: {}", src);
+
+                // Limit number of images to prevent overload
+                if (imageUrls.size() >= MAX_PREVIEW_IMAGES) {
                     break;
                 }
             }
         }
+        return imageUrls;
+    }
 
-        return author.isEmpty() ? "Unknown Author" : author.trim();
+    private static FetchRequest contentRequest(String url) {
+        return FetchRequest.get(url)
+                .header("Sec-Fetch-Site", "same-origin")
+                .referrer(url)
+                .timeout(10000) // 10 seconds for content loading
+                .maxBodySize(2 * 1024 * 1024); // 2MB max for content pages
     }
 
-    private String extractPublishDate(Document doc) {
-        String date = "";
+    public DetailedArticle extractDetailedArticle(String url) throws IOException {
+        DetailedArticle article = analyzeArticle(url);
+        markAnalyzed(url);
+        return article;
+    }
 
-        // Try multiple selectors for publish date
-        String[] dateSelectors = {
-                ".date", ".publish-date", ".published", ".timestamp", ".article-date",
-                ".post-date", ".story-date", "[itemprop=datePublished]", "[datetime]",
-                "meta[property='article:published_time']", "meta[name='publish_date']",
-                "time"
-        };
+    public ArticleBatchResult extractDetailedArticles(Collection<String> urls) {
+        return extractDetailedArticles(urls, (url, article) -> { });
+    }
+
+    public ArticleBatchResult extractDetailedArticles(Collection<String> urls, ArticleBatchListener listener) {
+        return extractDetailedArticles(urls.stream(), listener);
+    }
 
-        for (String selector : dateSelectors) {
-            Elements elements = doc.select(selector);
-            if (!elements.isEmpty()) {
-                Element element = elements.first();
-                if (selector.startsWith("meta")) {
-                    date = element.attr("content");
-                } else if (element.hasAttr("datetime")) {
-                    date = element.attr("datetime");
-                } else {
-                    date = element.text();
+    /**
+     * Analyze many articles concurrently, one task per URL on virtual threads where
+     * available. Each result is handed to the listener as soon as it completes, and a
+     * failing URL is recorded without aborting the rest of the batch. Per-host limits
+     * come from the scheduler, so articles on different sites are fetched in parallel.
+     * URLs are submitted as the stream yields them, so a batch fed from
+     * {@link #streamLinks} starts on the first articles while links are still being
+     * found. URLs that differ only in tracking parameters, fragment or scheme are
+     * analyzed once; the caller closes the stream.
+     */
+    public ArticleBatchResult extractDetailedArticles(Stream<String> urls, ArticleBatchListener listener) {
+        Map<String, DetailedArticle> articles = Collections.synchronizedMap(new LinkedHashMap<>());
+        Map<String, String> failures = Collections.synchronizedMap(new LinkedHashMap<>());
+
+        ExecutorService executor = TaskExecutors.newTaskExecutor("article-batch");
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            FingerprintSet submitted = new FingerprintSet();
+            try {
+                Iterator<String> pending = urls.iterator();
+                while (pending.hasNext()) {
+                    String url = pending.next();
+                    if (submitted.add(UrlCanonicalizer.fingerprint(url))) {
+                        tasks.add(executor.submit(() -> analyzeForBatch(url, articles, failures, listener)));
+                    }
                 }
-                if (!date.isEmpty()) {
-                    break;
+            } catch (UncheckedIOException e) {
+                log.warn("Stopped reading batch URLs: {}", e.getCause().getMessage());
+            }
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    log.error("Batch task failed", e.getCause());
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
         }
 
-        return date.isEmpty() ? "Unknown Date" : date.trim();
+        log.info("Batch analysis finished: {} articles, {} failures", articles.size(), failures.size());
+        return new ArticleBatchResult(articles, failures);
     }
 
-    private String extractArticleContent(Document doc) {
-        StringBuilder contentBuilder = new StringBuilder();
-
-        // Try multiple content selectors
-        String[] contentSelectors = {
-                ".article-content", ".article-body", ".story-content", ".post-content",
-                ".entry-content", ".content", "article", ".main-content", "[itemprop=articleBody]",
-                ".text", ".body", ".article-text", ".story-text"
-        };
-
-        Elements contentElements = new Elements();
-        for (String selector : contentSelectors) {
-            contentElements = doc.select(selector);
-            if (!contentElements.isEmpty()) {
-                System.out.println("Found content using selector: " + selector);
-                break;
-            }
+    private void markAnalyzed(String url) {
+        if (seenUrlStore != null) {
+            seenUrlStore.add(url);
         }
+    }
 
-        // If no main content found, try paragraphs
-        if (contentElements.isEmpty()) {
-            contentElements = doc.select("p");
+    private Void analyzeForBatch(String url, Map<String, DetailedArticle> articles, Map<String, String> failures,
+                                 ArticleBatchListener listener) {
+        try {
+            DetailedArticle article = analyzeArticle(url);
+            markAnalyzed(url);
+            articles.put(url, article);
+            listener.onArticle(url, article);
+        } catch (IOException e) {
+            failures.put(url, e.getMessage());
+            listener.onFailure(url, e);
         }
+        return null;
+    }
 
-        // Extract text from all content elements
-        for (Element element : contentElements) {
-            String text = element.text().trim();
-            if (!text.isEmpty() && text.length() > 30) {
-                contentBuilder.append(text).append("\n\n");
+    private DetailedArticle analyzeArticle(String url) throws IOException {
+        try {
+            log.debug("Extracting detailed article from: {}", url);
+
+            DocumentCache.Page page = loadPage(FetchRequest.get(url)
+                    .referrer("https://www.google.com/")
+                    .timeout(15000)
+                    .maxBodySize(3 * 1024 * 1024)); // 3MB max for detailed articles
+
+            // Check response status
+            int statusCode = page.getResponse().getStatusCode();
+            if (statusCode >= 400) {
+                throw new IOException("Failed to load article (HTTP " + statusCode + ")");
             }
-        }
 
-        String content = contentBuilder.toString().trim();
-        return content.isEmpty() ? "No content could be extracted from this article." : content;
-    }
+            Document doc = page.getDocument();
+            String host = getDomainFromUrl(url);
 
-    private List<String> extractArticleImages(Document doc) {
-        List<String> imageUrls = new ArrayList<>();
+            // One walk of the page finds the headline, author, date, body and images
+            ArticleFieldExtractor.Fields fields = fieldExtractor.extract(doc, host, MAX_ARTICLE_IMAGES);
+            String headline = fields.getHeadline();
+            String author = fields.getAuthor();
+            String publishDate = fields.getPublishDate();
+            Instant publishedAt = dateNormalizer.normalize(publishDate, host);
+            String content = fields.getContent();
+            List<String> imageUrls = fields.getImageUrls();
 
-        // Try to find images in article content areas
-        String[] imageSelectors = {
-                ".article-content img[src]", ".article-body img[src]", ".story-content img[src]",
-                ".post-content img[src]", ".entry-content img[src]", "article img[src]",
-                ".content img[src]", ".main-content img[src]", ".text img[src]"
-        };
+            // Perform sentiment analysis
+            SentimentAnalysis sentiment = analyzeSentiment(content);
 
-        Elements images = new Elements();
-        for (String selector : imageSelectors) {
-            images = doc.select(selector);
-            if (!images.isEmpty()) {
-                break;
-            }
-        }
+            // Calculate word count
+            int wordCount = content.split("\\s+").length;
 
-        // Fallback to all images if none found in content
-        if (images.isEmpty()) {
-            images = doc.select("img[src]");
-        }
+            log.info("Extracted detailed article: {} by {} ({} words, {} images, {})",
+                    headline, author, wordCount, imageUrls.size(), sentiment.getLabel());
 
-        for (Element img : images) {
-            String src = img.attr("abs:src");
-            if (!src.isEmpty() && isValidImageUrl(src) && isNewsImage(img, src)) {
-                imageUrls.add(src);
-                if (imageUrls.size() >= 5) break;
-            }
+            return new DetailedArticle(headline, author, publishDate, publishedAt, content, imageUrls, sentiment, wordCount);
+
+        } catch (IOException e) {
+            throw new IOException("Failed to analyze article: " + e.getMessage());
+        } catch (Exception e) {
+            throw new IOException("Error processing article: " + e.getMessage());
         }
+    }
 
-        return imageUrls;
+    private static Elements selectContent(Document doc, String selector) {
+        Elements found = doc.select(selector);
+        if (found.isEmpty()) {
+            return null;
+        }
+        log.debug("Found content using selector: {}", selector);
+        return found;
     }
 
     private SentimentAnalysis analyzeSentiment(String text) {
@@ -771,33 +1166,9 @@ public class WebScraperService {
         return new SentimentAnalysis(label, score, allKeywords, foundPositive, foundNegative);
     }
 
-    private boolean isNewsImage(Element img, String src) {
-        // Check image attributes and context for news relevance
-        String alt = img.attr("alt").toLowerCase();
-        String className = img.attr("class").toLowerCase();
-        String parentClass = img.parent() != null ? img.parent().attr("class").toLowerCase() : "";
-
-        // Skip obvious non-content images
-        String[] skipTerms = {
-                "logo", "advertisement", "banner", "social", "icon", "avatar",
-                "tracking", "pixel", "widget", "sidebar", "nav", "menu", "footer"
-        };
-
-        String combinedContext = alt + " " + className + " " + parentClass;
-        for (String term : skipTerms) {
-            if (combinedContext.contains(term)) {
-                return false;
-            }
-        }
-
-        // Prefer images with meaningful alt text or in content areas
-        return alt.length() > 10 ||
-                className.contains("content") ||
-                className.contains("article") ||
-                className.contains("story") ||
-                parentClass.contains("content") ||
-                parentClass.contains("article") ||
-                parentClass.contains("story");
+    private boolean isNewsImage(Element img) {
+        String parentClass = img.parent() != null ? img.parent().attr("class") : "";
+        return urlClassifier.isNewsImage(img.attr("alt"), img.attr("class"), parentClass);
     }
 
 }
@@ -0,0 +1,271 @@
+package com.webscraper.app.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The walk in {@link ArticleFieldExtractor} must give the same fields, and teach the
+ * {@link ExtractionProfileCache} the same selectors with the same hits and misses, as
+ * running each cascade with one select per selector. Pages here carry no structured
+ * data, which takes precedence over both.
+ */
+class ArticleFieldExtractorTest {
+
+    private static final int MAX_IMAGES = 5;
+
+    private static final String[] FIXTURES = {
+            // Scored body, byline, <time>, content image
+            "<h1>Council approves budget</h1><p class=\"byline\">By Ann Reporter</p>"
+                    + "<time datetime=\"2024-05-01T09:00:00Z\">1 May</time><div class=\"article-body\">"
+                    + "<p>The council approved the budget on Tuesday, after a long debate about roads, schools and parks.</p>"
+                    + "<p>Residents had asked for more spending on libraries, and the mayor said, in the end, that some would.</p>"
+                    + "<figure><img src=\"/media/budget-large.jpg\" alt=\"Council meeting photo\"></figure>"
+                    + "<p>Opposition members voted against the plan, arguing that taxes would rise, while services fell.</p>"
+                    + "</div>",
+            // Too short to score: every field from the cascades, past empty first matches
+            "<div class=\"headline\"></div><div class=\"title\">Second story</div>"
+                    + "<span class=\"author\"></span><span class=\"byline\">Written by: Bo Writer</span>"
+                    + "<span class=\"date\">2 May 2024</span><div class=\"content\"><p>A short teaser of more than thirty chars.</p>"
+                    + "<img src=\"https://example.com/media/teaser-large.jpg\" alt=\"news photo\"></div>",
+            // Nothing matches: title, paragraphs and all images
+            "<div><p>Only paragraphs here, long enough to be kept as content.</p>"
+                    + "<img src=\"https://example.com/media/plain-large.jpg\" alt=\"news photo\"></div>",
+            // Attribute selectors, and a template change for the remembered selectors
+            "<div itemprop=\"headline\">Third story</div><div itemprop=\"author\">By Cat Smith</div>"
+                    + "<div datetime=\"2024-05-03\">Yesterday</div><div itemprop=\"articleBody\">"
+                    + "<p>Body text of the third story, long enough to count.</p></div>",
+            // Image cascade inside a container, one image too few to be news
+            "<h1></h1><h1>Fourth story</h1><article><p>Short body of the fourth story, over thirty.</p>"
+                    + "<img src=\"https://example.com/media/fourth-large.jpg\" alt=\"news photo\">"
+                    + "<img src=\"https://example.com/media/icon.png\" alt=\"logo\"></article>"
+    };
+
+    @Test
+    void fixturePagesMatchPlainCascades() {
+        List<Document> pages = new ArrayList<>();
+        for (String body : FIXTURES) {
+            pages.add(Jsoup.parse("<html><head><title>Fixture title</title></head><body>" + body + "</body></html>",
+                    "https://fixture.example.com/news/story"));
+        }
+        List<String> hosts = new ArrayList<>();
+        List<Document> sequence = new ArrayList<>();
+        for (int pass = 0; pass < 2; pass++) { // The second pass starts from remembered profiles
+            for (Document page : pages) {
+                sequence.add(page);
+                hosts.add("fixture.example.com");
+            }
+        }
+        assertSameAsCascades(sequence, hosts);
+    }
+
+    @Test
+    void generatedPagesMatchPlainCascades() {
+        Random random = new Random(7);
+        List<Document> pages = new ArrayList<>();
+        List<String> hosts = new ArrayList<>();
+        for (int n = 0; n < 2000; n++) {
+            StringBuilder html = new StringBuilder("<html><head><title>T").append(n).append("</title></head><body>");
+            for (int i = 0, count = 1 + random.nextInt(5); i < count; i++) {
+                element(html, random, 0);
+            }
+            pages.add(Jsoup.parse(html.append("</body></html>").toString(), "https://example.com/news/a"));
+            hosts.add("host" + random.nextInt(5));
+        }
+        assertSameAsCascades(pages, hosts);
+    }
+
+    @Test
+    void structuredDataTakesPrecedenceWhereverItIs() {
+        ArticleFieldExtractor extractor = new ArticleFieldExtractor(new ExtractionProfileCache(null), new UrlClassifier());
+        String body = "<p class=\"byline\">By Page Byline</p><div class=\"article-body\">" + FIXTURES[0] + "</div>";
+        for (Document doc : List.of(
+                StructuredDataExtractorTest.page(StructuredDataExtractorTest.META + StructuredDataExtractorTest.ARTICLE, body),
+                StructuredDataExtractorTest.page(StructuredDataExtractorTest.META, body + StructuredDataExtractorTest.ARTICLE))) {
+            ArticleFieldExtractor.Fields fields = extractor.extract(doc, "example.com", MAX_IMAGES);
+            assertEquals("Council approves budget", fields.getHeadline());
+            assertEquals("Ann Reporter", fields.getAuthor());
+            assertEquals("2024-05-01T09:00:00Z", fields.getPublishDate());
+            assertEquals("https://example.com/media/lead.jpg", fields.getImageUrls().get(0));
+        }
+    }
+
+    @Test
+    void onlyAFullStructuredBodyReplacesScoring() {
+        ArticleFieldExtractor extractor = new ArticleFieldExtractor(new ExtractionProfileCache(null), new UrlClassifier());
+        String page = "<div class=\"article-body\">" + FIXTURES[0] + "</div>";
+        for (int length : new int[] {499, 500}) {
+            String articleBody = "x".repeat(length);
+            String script = "<script type=\"application/ld+json\">{\"@type\":\"NewsArticle\",\"articleBody\":\""
+                    + articleBody + "\"}</script>";
+            for (Document doc : List.of(StructuredDataExtractorTest.page(script, page),
+                    StructuredDataExtractorTest.page("", page + script))) {
+                String content = extractor.extract(doc, "example.com", MAX_IMAGES).getContent();
+                if (length < 500) {
+                    assertTrue(content.startsWith("The council approved the budget"), content);
+                } else {
+                    assertEquals(articleBody, content);
+                }
+            }
+        }
+    }
+
+    private static void assertSameAsCascades(List<Document> pages, List<String> hosts) {
+        ExtractionProfileCache expectedProfiles = new ExtractionProfileCache(null);
+        ExtractionProfileCache actualProfiles = new ExtractionProfileCache(null);
+        SelectorCascades cascades = new SelectorCascades(expectedProfiles);
+        ArticleFieldExtractor extractor = new ArticleFieldExtractor(actualProfiles, new UrlClassifier());
+
+        for (int i = 0; i < pages.size(); i++) {
+            Document page = pages.get(i);
+            String host = hosts.get(i);
+            ArticleFieldExtractor.Fields fields = extractor.extract(page, host, MAX_IMAGES);
+            assertEquals(cascades.extract(page, host), List.of(fields.getHeadline(), fields.getAuthor(),
+                    fields.getPublishDate(), fields.getContent(), fields.getImageUrls().toString()), "page " + i);
+        }
+        assertEquals(expectedProfiles.getHitCount(), actualProfiles.getHitCount(), "hits");
+        assertEquals(expectedProfiles.getMissCount(), actualProfiles.getMissCount(), "misses");
+        for (String host : new TreeSet<>(hosts)) {
+            for (ExtractionProfileCache.Field field : ExtractionProfileCache.Field.values()) {
+                assertEquals(expectedProfiles.get(host, field), actualProfiles.get(host, field), host + " " + field);
+            }
+        }
+    }
+
+    private static final String[] TAGS = {"div", "span", "p", "article", "section", "h1", "time", "img", "a", "meta",
+            "main", "li"};
+    private static final String[] CLASSES = {"headline", "title", "Article-Title", "author", "byline", "date",
+            "published", "timestamp", "article-content", "article-body", "content", "post-content", "entry-content",
+            "text", "body", "main-content", "story-text", "x", "photo"};
+    private static final String[] ITEMPROPS = {"headline", "author", "datePublished", "articleBody"};
+
+    // A random element using the names and attributes the cascades look for
+    private static void element(StringBuilder html, Random random, int depth) {
+        String tag = TAGS[random.nextInt(TAGS.length)];
+        html.append('<').append(tag);
+        if (random.nextInt(3) > 0) {
+            html.append(" class=\"").append(CLASSES[random.nextInt(CLASSES.length)])
+                    .append(random.nextBoolean() ? " " + CLASSES[random.nextInt(CLASSES.length)] : "").append('"');
+        }
+        if (random.nextInt(6) == 0) {
+            html.append(" datetime=\"2024-0").append(1 + random.nextInt(9)).append("-01\"");
+        }
+        if (random.nextInt(8) == 0) {
+            html.append(" itemprop=\"").append(ITEMPROPS[random.nextInt(ITEMPROPS.length)]).append('"');
+        }
+        if (tag.equals("img") && random.nextInt(4) > 0) {
+            html.append(" src=\"https://example.com/media/photo-").append(random.nextInt(99))
+                    .append("-large.jpg\" alt=\"news photo of event\"");
+        }
+        if (tag.equals("meta")) {
+            html.append(" property=\"og:title\" content=\"").append(random.nextBoolean() ? "OG" : "").append('"');
+        }
+        html.append('>');
+        if (tag.equals("img") || tag.equals("meta")) {
+            return;
+        }
+        for (int i = 0, kids = depth > 4 ? 0 : random.nextInt(4); i < kids; i++) {
+            if (random.nextInt(3) == 0) {
+                html.append(random.nextBoolean() ? "By " : "")
+                        .append("Some words, here and there, more text to read about this story. ".repeat(random.nextInt(3)));
+            }
+            element(html, random, depth + 1);
+        }
+        html.append("</").append(tag).append('>');
+    }
+
+    // Each field on its own, with doc.selectFirst or doc.select per selector
+    private static final class SelectorCascades {
+        private final ExtractionProfileCache profiles;
+        private final UrlClassifier urlClassifier = new UrlClassifier();
+        private final ReadabilityExtractor readability = new ReadabilityExtractor(urlClassifier);
+
+        SelectorCascades(ExtractionProfileCache profiles) {
+            this.profiles = profiles;
+        }
+
+        List<String> extract(Document doc, String host) {
+            String headline = first(doc, host, ExtractionProfileCache.Field.HEADLINE,
+                    ArticleFieldExtractor.HEADLINE_SELECTORS, Element::text);
+            headline = headline == null ? doc.title() : headline;
+            headline = headline.isEmpty() ? "No headline found" : headline.trim();
+
+            ReadabilityExtractor.Result scored = readability.extract(doc, MAX_IMAGES);
+            String author = scored.getByline() != null ? scored.getByline()
+                    : first(doc, host, ExtractionProfileCache.Field.AUTHOR, ArticleFieldExtractor.AUTHOR_SELECTORS,
+                    element -> ReadabilityExtractor.cleanByline(element.text()));
+            author = author == null ? "Unknown Author" : author.trim();
+
+            String date = first(doc, host, ExtractionProfileCache.Field.DATE, ArticleFieldExtractor.DATE_SELECTORS,
+                    element -> element.hasAttr("datetime") ? element.attr("datetime") : element.text());
+            date = date == null ? "Unknown Date" : date.trim();
+
+            String content = scored.isEmpty() ? content(all(doc, host, ExtractionProfileCache.Field.CONTENT,
+                    ArticleFieldExtractor.CONTENT_SELECTORS, "p")) : scored.getText();
+            List<String> images = scored.getImageUrls().isEmpty() ? images(all(doc, host,
+                    ExtractionProfileCache.Field.IMAGES, ArticleFieldExtractor.IMAGE_SELECTORS, "img[src]"))
+                    : scored.getImageUrls();
+            return List.of(headline, author, date, content, images.toString());
+        }
+
+        private String first(Document doc, String host, ExtractionProfileCache.Field field, String[] selectors,
+                             Function<Element, String> value) {
+            return profiles.firstMatch(host, field, selectors, selector -> {
+                Element element = doc.selectFirst(selector);
+                if (element == null) {
+                    return null;
+                }
+                String text = selector.startsWith("meta") ? element.attr("content") : value.apply(element);
+                return text.isEmpty() ? null : text;
+            });
+        }
+
+        private Elements all(Document doc, String host, ExtractionProfileCache.Field field, String[] selectors,
+                             String fallback) {
+            Elements found = profiles.firstMatch(host, field, selectors, selector -> {
+                Elements elements = doc.select(selector);
+                return elements.isEmpty() ? null : elements;
+            });
+            return found != null ? found : doc.select(fallback);
+        }
+
+        private static String content(Elements elements) {
+            StringBuilder content = new StringBuilder();
+            for (Element element : elements) {
+                String text = element.text().trim();
+                if (text.length() > 30) {
+                    content.append(text).append("\n\n");
+                }
+            }
+            String text = content.toString().trim();
+            return text.isEmpty() ? "No content could be extracted from this article." : text;
+        }
+
+        private List<String> images(Elements elements) {
+            List<String> urls = new ArrayList<>();
+            for (Element img : elements) {
+                String src = img.attr("abs:src");
+                String parentClass = img.parent() != null ? img.parent().attr("class") : "";
+                if (!src.isEmpty() && urlClassifier.isContentImageUrl(src)
+                        && urlClassifier.isNewsImage(img.attr("alt"), img.attr("class"), parentClass)) {
+                    urls.add(src);
+                    if (urls.size() >= MAX_IMAGES) {
+                        break;
+                    }
+                }
+            }
+            return urls;
+        }
+    }
+}
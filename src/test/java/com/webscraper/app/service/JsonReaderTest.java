@@ -0,0 +1,88 @@
+package com.webscraper.app.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonReaderTest {
+
+    @Test
+    void readsNestedValues() throws IOException {
+        JsonReader reader = new JsonReader(
+                "{\"a\": {\"b\": [1, \"two\", true, null, {\"c\": \"\\u00e9\\n\"}]}, \"d\": -1.5e3}");
+        reader.beginObject();
+        assertEquals("a", reader.nextName());
+        reader.beginObject();
+        assertEquals("b", reader.nextName());
+        reader.beginArray();
+        assertEquals("1", reader.nextString());
+        assertEquals("two", reader.nextString());
+        assertEquals("true", reader.nextString());
+        assertEquals("null", reader.nextString());
+        reader.beginObject();
+        assertEquals("c", reader.nextName());
+        assertEquals("é\n", reader.nextString());
+        reader.endObject();
+        reader.endArray();
+        reader.endObject();
+        assertEquals("d", reader.nextName());
+        assertEquals("-1.5e3", reader.nextString());
+        reader.endObject();
+        assertEquals(JsonReader.Token.END, reader.peek());
+    }
+
+    @Test
+    void skipsNestedValues() throws IOException {
+        JsonReader reader = new JsonReader("[{\"x\": [[{\"y\": \"]}\"}]], \"z\": {}}, \"after\"]");
+        reader.beginArray();
+        reader.skipValue();
+        assertEquals("after", reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    void toleratesTrailingCommas() throws IOException {
+        JsonReader reader = new JsonReader("{\"a\": [\"x\", \"y\",], \"b\": 2,}");
+        reader.beginObject();
+        assertEquals("a", reader.nextName());
+        List<String> values = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(reader.nextString());
+        }
+        reader.endArray();
+        assertEquals(List.of("x", "y"), values);
+        assertEquals("b", reader.nextName());
+        assertEquals("2", reader.nextString());
+        reader.endObject();
+        assertEquals(JsonReader.Token.END, reader.peek());
+    }
+
+    @Test
+    void truncatedInputFails() {
+        for (String json : List.of("[", "[1,", "{", "{\"a\"", "{\"a\":", "{\"a\":[", "{\"@graph\":[", "\"abc", "[[[{")) {
+            assertThrows(IOException.class, () -> new JsonReader(json).skipValue(), json);
+        }
+    }
+
+    @Test
+    void truncatedJsonLdIsIgnored() {
+        Document doc = Jsoup.parse("<html><head>"
+                + "<script type=\"application/ld+json\">{\"@graph\":[</script>"
+                + "<script type=\"application/ld+json\">{\"@type\":\"NewsArticle\",\"image\":[</script>"
+                + "<script type=\"application/ld+json\">{\"@type\":\"NewsArticle\",\"author\":"
+                + "[[[[[[[[[[[[[[[[[[[[\"Deep\"]]]]]]]]]]]]]]]]]]]],\"headline\":\"Kept\"}</script>"
+                + "</head><body></body></html>", "https://example.com/a");
+        StructuredDataExtractor.Metadata metadata = new StructuredDataExtractor().extract(doc);
+        assertEquals("Kept", metadata.getHeadline());
+        assertNull(metadata.getAuthor());
+    }
+}
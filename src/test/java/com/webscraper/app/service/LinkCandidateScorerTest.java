@@ -0,0 +1,74 @@
+package com.webscraper.app.service;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinkCandidateScorerTest {
+
+    private final LinkCandidateScorer scorer = new LinkCandidateScorer();
+
+    private List<String> ranked(String body) {
+        return scorer.rank(Jsoup.parse("<html><body>" + body + "</body></html>", "https://example.com/").body())
+                .stream().map(candidate -> candidate.getAnchor().attr("href")).collect(Collectors.toList());
+    }
+
+    @Test
+    void newsContainersRankAboveChrome() {
+        List<String> ranked = ranked("<header><a href=\"/logo\"><img src=\"/logo.png\"></a>"
+                + "<nav><a href=\"/world\">World</a><a href=\"/sport\">Sport</a></nav></header>"
+                + "<div class=\"sidebar\"><a href=\"/sidebar-story\">A story linked from the sidebar box</a></div>"
+                + "<div><a href=\"/plain\">Plain link</a></div>"
+                + "<main><h2><a href=\"/lead\">The lead story of the day, with a long headline</a></h2>"
+                + "<div class=\"story-card\"><a href=\"/card\">Card</a></div></main>"
+                + "<footer><a href=\"/about\">About us</a></footer>");
+        assertEquals(List.of("/lead", "/card", "/plain", "/sidebar-story", "/world", "/sport", "/about", "/logo"),
+                ranked);
+    }
+
+    @Test
+    void articleHeadersAreNotChrome() {
+        List<String> ranked = ranked("<article><header><a href=\"/own\">Headline</a></header></article>"
+                + "<header><a href=\"/site\">Headline</a></header>");
+        assertEquals(List.of("/own", "/site"), ranked);
+    }
+
+    @Test
+    void cardGridRanksAsOneTierInDocumentOrder() {
+        StringBuilder grid = new StringBuilder("<nav class=\"menu\"><a href=\"/menu\">Menu</a></nav><div class=\"grid\">");
+        for (int i = 1; i <= 6; i++) {
+            grid.append("<div class=\"story-card\"><h3><a href=\"/card-").append(i)
+                    .append("\">Headline number ").append(i).append(" for the card grid</a></h3>")
+                    .append("<a href=\"/card-").append(i).append("#comments\">12</a></div>");
+        }
+        List<String> ranked = ranked(grid.append("</div>").toString());
+        assertEquals(List.of("/card-1", "/card-2", "/card-3", "/card-4", "/card-5", "/card-6"), ranked.subList(0, 6));
+        assertEquals("/menu", ranked.get(ranked.size() - 1));
+    }
+
+    @Test
+    void tiesKeepDocumentOrder() {
+        StringBuilder links = new StringBuilder("<div class=\"latest\">");
+        for (int i = 0; i < 40; i++) {
+            links.append("<a href=\"/story-").append(i).append("\">Story ").append(i).append("</a>");
+        }
+        List<String> ranked = ranked(links.append("</div>").toString());
+        for (int i = 0; i < 40; i++) {
+            assertEquals("/story-" + i, ranked.get(i));
+        }
+    }
+
+    @Test
+    void countsDataLinksAndStoryAttributes() {
+        List<LinkCandidateScorer.Candidate> candidates = scorer.rank(Jsoup.parse("<div><a href=\"/plain\">Plain</a></div>"
+                + "<div data-module=\"story\"><a data-href=\"/data\">Data</a></div><a name=\"top\">Top</a>").body());
+        assertEquals(2, candidates.size());
+        assertEquals("/data", candidates.get(0).getAnchor().attr("data-href"));
+        assertTrue(candidates.get(0).getScore() > candidates.get(1).getScore());
+    }
+}
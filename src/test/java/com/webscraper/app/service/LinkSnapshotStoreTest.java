@@ -0,0 +1,130 @@
+package com.webscraper.app.service;
+
+import com.webscraper.app.dto.LinkItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinkSnapshotStoreTest {
+
+    private static final String SEED = "https://example.com/";
+
+    @TempDir
+    Path directory;
+
+    private static List<LinkItem> links(int from, int to) {
+        List<LinkItem> links = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            links.add(new LinkItem("Story " + i, "https://example.com/news/story-" + i));
+        }
+        return links;
+    }
+
+    private static List<LinkItem> concat(List<LinkItem> first, List<LinkItem> second) {
+        List<LinkItem> links = new ArrayList<>(first);
+        links.addAll(second);
+        return links;
+    }
+
+    private static List<String> urls(List<LinkItem> links) {
+        List<String> urls = new ArrayList<>();
+        for (LinkItem link : links) {
+            urls.add(link.getUrl());
+        }
+        return urls;
+    }
+
+    @Test
+    void returnsOnlyLinksNotSeenBefore() {
+        LinkSnapshotStore store = new LinkSnapshotStore(directory, 100);
+        assertEquals(urls(links(0, 5)), urls(store.diff(SEED, links(0, 5))));
+        assertEquals(urls(links(5, 7)), urls(store.diff(SEED, concat(links(3, 7), links(0, 2)))));
+        assertTrue(store.diff(SEED, links(0, 7)).isEmpty());
+        assertEquals(7, store.size(SEED));
+    }
+
+    @Test
+    void canonicalFormsAreTheSameLink() {
+        LinkSnapshotStore store = new LinkSnapshotStore(null, 100);
+        store.diff(SEED, List.of(new LinkItem("A", "https://example.com/news/a")));
+        assertTrue(store.diff(SEED, List.of(new LinkItem("A", "https://example.com/news/a?utm_source=rss#top")))
+                .isEmpty());
+    }
+
+    @Test
+    void seedsAreKeptApart() {
+        LinkSnapshotStore store = new LinkSnapshotStore(directory, 100);
+        store.diff(SEED, links(0, 3));
+        assertEquals(3, store.diff("https://example.com/world", links(0, 3)).size());
+    }
+
+    @Test
+    void reloadsTheSameSnapshotFromDisk() {
+        LinkSnapshotStore store = new LinkSnapshotStore(directory, 100);
+        store.diff(SEED, links(0, 5));
+        List<LinkItem> next = concat(links(2, 5), links(5, 8));
+
+        LinkSnapshotStore reloaded = new LinkSnapshotStore(directory, 100);
+        assertEquals(5, reloaded.size(SEED));
+        assertEquals(store.getFirstSeen(SEED, "https://example.com/news/story-1"),
+                reloaded.getFirstSeen(SEED, "https://example.com/news/story-1"));
+        assertEquals(urls(store.diff(SEED, next)), urls(reloaded.diff(SEED, next)));
+    }
+
+    @Test
+    void aDamagedFileStartsAfresh() throws IOException {
+        new LinkSnapshotStore(directory, 100).diff(SEED, links(0, 5));
+        Path file;
+        try (Stream<Path> files = Files.list(directory)) {
+            file = files.filter(path -> path.toString().endsWith(".snapshot")).findFirst().orElseThrow();
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 20)); // Cut off mid-entry
+        assertEquals(5, new LinkSnapshotStore(directory, 100).diff(SEED, links(0, 5)).size());
+
+        Files.write(file, "not a snapshot at all".getBytes(StandardCharsets.US_ASCII));
+        LinkSnapshotStore store = new LinkSnapshotStore(directory, 100);
+        assertEquals(0, store.size(SEED));
+        assertEquals(5, store.diff(SEED, links(0, 5)).size());
+        assertEquals(5, new LinkSnapshotStore(directory, 100).size(SEED)); // Rewritten whole
+    }
+
+    @Test
+    void trimmedLinksCountAsNewAgain() {
+        LinkSnapshotStore store = new LinkSnapshotStore(directory, 4);
+        store.diff(SEED, links(0, 4));
+        assertEquals(urls(links(4, 6)), urls(store.diff(SEED, links(4, 6))));
+        assertEquals(4, store.size(SEED));
+        assertNull(store.getFirstSeen(SEED, "https://example.com/news/story-0"));
+        assertNotNull(store.getFirstSeen(SEED, "https://example.com/news/story-2"));
+
+        // The two oldest were dropped from the index as well as the list, here and on disk
+        assertTrue(store.diff(SEED, links(2, 6)).isEmpty());
+        assertEquals(urls(links(0, 1)), urls(new LinkSnapshotStore(directory, 4).diff(SEED, links(0, 1))));
+        assertEquals(urls(links(1, 2)), urls(store.diff(SEED, links(1, 2))));
+    }
+
+    @Test
+    void clearForgetsTheSeed() {
+        LinkSnapshotStore store = new LinkSnapshotStore(directory, 100);
+        store.diff(SEED, links(0, 3));
+        store.clear(SEED);
+        assertEquals(3, store.diff(SEED, links(0, 3)).size());
+        store.clear(SEED);
+        assertEquals(0, new LinkSnapshotStore(directory, 100).size(SEED));
+    }
+}
@@ -0,0 +1,52 @@
+package com.webscraper.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PublishDateNormalizerTest {
+
+    private final PublishDateNormalizer normalizer = new PublishDateNormalizer();
+
+    @Test
+    void readsMachineFormats() {
+        Instant expected = Instant.parse("2024-05-01T08:00:00Z");
+        assertEquals(expected, normalizer.normalize("2024-05-01T09:00:00+01:00", null));
+        assertEquals(expected, normalizer.normalize("2024-05-01T08:00:00Z", null));
+        assertEquals(expected, normalizer.normalize("2024-05-01T09:00:00.000+0100", null));
+        assertEquals(expected, normalizer.normalize("Wed, 1 May 2024 08:00:00 GMT", null));
+        assertEquals(expected, normalizer.normalize("2024-05-01 08:00:00", null));
+        assertEquals(Instant.parse("2024-05-01T00:00:00Z"), normalizer.normalize("2024-05-01", null));
+    }
+
+    @Test
+    void readsWrittenDates() {
+        Instant day = Instant.parse("2024-05-01T00:00:00Z");
+        assertEquals(day, normalizer.normalize("May 1, 2024", null));
+        assertEquals(day, normalizer.normalize("  Published on: 1st May 2024 ", null));
+        assertEquals(day, normalizer.normalize("Wednesday, May 1, 2024", null));
+        assertEquals(day, normalizer.normalize("1 May. 2024", null));
+        assertEquals(Instant.parse("2024-05-01T21:30:00Z"), normalizer.normalize("Updated May 1, 2024 9:30 PM", null));
+        assertEquals(Instant.parse("2024-05-01T09:30:00Z"), normalizer.normalize("1 May 2024, 09:30", null));
+        assertEquals(day, normalizer.normalize("1.5.2024", null));
+    }
+
+    @Test
+    void remembersEachHostsFormat() {
+        // A day over 12 shows this site writes day first, so its next ambiguous date is read that way too
+        assertEquals(Instant.parse("2024-12-25T00:00:00Z"), normalizer.normalize("25/12/2024", "uk.example.com"));
+        assertEquals(Instant.parse("2024-01-05T00:00:00Z"), normalizer.normalize("05/01/2024", "uk.example.com"));
+        assertEquals(Instant.parse("2024-05-01T00:00:00Z"), normalizer.normalize("05/01/2024", "us.example.com"));
+    }
+
+    @Test
+    void unreadableDatesAreNull() {
+        assertNull(normalizer.normalize(null, null));
+        assertNull(normalizer.normalize("Unknown Date", "example.com"));
+        assertNull(normalizer.normalize("3 hours ago", "example.com"));
+        assertNull(normalizer.normalize("February 30, 2024", "example.com"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.webscraper.app.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadabilityExtractorTest {
+
+    private static final String BODY = "<p>The council approved the budget on Tuesday, after a long debate about roads, schools and parks.</p>"
+            + "<p>Residents had asked for more spending on libraries, and the mayor said, in the end, that some would follow.</p>"
+            + "<p>Opposition members voted against the plan, arguing that taxes would rise, while services would not improve.</p>"
+            + "<p>The new budget takes effect in April, and a review of its effects is planned, the council said, for next year.</p>";
+
+    private final ReadabilityExtractor extractor = new ReadabilityExtractor(new UrlClassifier());
+
+    private ReadabilityExtractor.Result extract(String body) {
+        return extract("", body);
+    }
+
+    private ReadabilityExtractor.Result extract(String bodyAttributes, String body) {
+        Document doc = Jsoup.parse("<html><head><title>T</title></head><body" + bodyAttributes + ">"
+                + "<nav><a href=/a>Home</a> <a href=/b>News</a></nav>" + body + "</body></html>",
+                "https://example.com/news/story");
+        return extractor.extract(doc, 5);
+    }
+
+    @Test
+    void findsTheArticleBody() {
+        ReadabilityExtractor.Result result = extract("<div class=\"article-body\">" + BODY + "</div>");
+        assertEquals(4, result.getText().split("\n\n").length);
+        assertTrue(result.getText().startsWith("The council approved the budget"));
+        assertFalse(result.getText().contains("Home"));
+    }
+
+    @Test
+    void utilityClassesDoNotHideTheBody() {
+        int expected = extract("<div class=\"article-body\">" + BODY + "</div>").getText().length();
+        assertEquals(expected, extract("<div class=\"article-body overflow-hidden\">" + BODY + "</div>").getText().length());
+        assertEquals(expected, extract("<div class=\"md:hidden lg:block\">" + BODY + "</div>").getText().length());
+        assertEquals(expected, extract("<article class=\"post type-post tag-promo tag-share\">" + BODY + "</article>")
+                .getText().length());
+        assertEquals(expected, extract(" class=\"modal-open\"", "<div class=\"article-body\">" + BODY + "</div>")
+                .getText().length());
+        for (String classes : new String[] {"post type-post tag-social-media", "post category-comment-is-free",
+                "post tag-trending-now", "entry-content has-related-posts", "post tag-subscribe tag-recommended"}) {
+            assertEquals(expected, extract("<article class=\"" + classes + "\">" + BODY + "</article>")
+                    .getText().length(), classes);
+        }
+    }
+
+    @Test
+    void skipWordsWinWithinOneClassName() {
+        String extra = "<p>Great article, thanks for writing it, I have shared it with all of my friends and family.</p>";
+        String page = "<div class=\"article-body\">" + BODY
+                + "<div class=\"comment-content\">" + extra + "</div>"
+                + "<div class=\"jp-relatedposts\">" + extra + "</div>"
+                + "<div class=\"comments post-comments\">" + extra + "</div>"
+                + "</div>";
+        ReadabilityExtractor.Result result = extract(page);
+        assertEquals(4, result.getText().split("\n\n").length);
+        assertFalse(result.getText().contains("Great article"));
+    }
+
+    @Test
+    void skipsHiddenAndBoilerplateBlocks() {
+        String extra = "<p>Sign up to our newsletter today, and get the morning briefing delivered, free, every day.</p>";
+        String page = "<div class=\"article-body\">" + BODY
+                + "<div class=\"share-tools\">" + extra + "</div>"
+                + "<div class=\"newsletter-signup\">" + extra + "</div>"
+                + "<div hidden>" + extra + "</div>"
+                + "<div aria-hidden=\"true\">" + extra + "</div>"
+                + "</div>";
+        ReadabilityExtractor.Result result = extract(page);
+        assertEquals(4, result.getText().split("\n\n").length);
+        assertFalse(result.getText().contains("newsletter"));
+    }
+
+    @Test
+    void tooLittleTextIsEmpty() {
+        assertTrue(extract("<div class=\"article-body\"><p>Just a short teaser, with a comma.</p></div>").isEmpty());
+    }
+}
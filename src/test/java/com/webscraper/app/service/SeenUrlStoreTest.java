@@ -0,0 +1,104 @@
+package com.webscraper.app.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeenUrlStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file() {
+        return directory.resolve("seen.bloom");
+    }
+
+    @Test
+    void remembersAddedUrls() throws IOException {
+        try (SeenUrlStore store = new SeenUrlStore(file(), 1000, 0.01)) {
+            assertFalse(store.mightContain("https://example.com/news/a"));
+            assertTrue(store.add("https://example.com/news/a"));
+            assertFalse(store.add("https://example.com/news/a"));
+            assertTrue(store.mightContain("https://example.com/news/a"));
+            assertTrue(store.mightContain("http://example.com/news/a?utm_source=rss")); // Same article
+            assertFalse(store.mightContain("https://example.com/news/b"));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRate() throws IOException {
+        try (SeenUrlStore store = new SeenUrlStore(file(), 1000, 0.01)) {
+            for (int i = 0; i < 1000; i++) {
+                store.add("https://example.com/news/seen-" + i);
+            }
+            int falsePositives = 0;
+            for (int i = 0; i < 10_000; i++) {
+                if (store.mightContain("https://example.com/news/unseen-" + i)) {
+                    falsePositives++;
+                }
+            }
+            assertTrue(falsePositives < 300, falsePositives + " false positives in 10000");
+            assertEquals(0.01, store.getFalsePositiveRate(), 0.005);
+        }
+    }
+
+    @Test
+    void reopensWithTheSameContentsAndSize() throws IOException {
+        try (SeenUrlStore store = new SeenUrlStore(file(), 1000, 0.01)) {
+            for (int i = 0; i < 100; i++) {
+                store.add("https://example.com/news/" + i);
+            }
+        }
+        long length = Files.size(file());
+        try (SeenUrlStore store = new SeenUrlStore(file(), 50_000, 0.0001)) { // An existing filter keeps its size
+            assertEquals(100, store.size());
+            for (int i = 0; i < 100; i++) {
+                assertTrue(store.mightContain("https://example.com/news/" + i));
+            }
+            store.add("https://example.com/news/more");
+        }
+        assertEquals(length, Files.size(file()));
+        try (SeenUrlStore store = new SeenUrlStore(file(), 1000, 0.01)) {
+            assertEquals(101, store.size());
+            assertTrue(store.mightContain("https://example.com/news/more"));
+        }
+    }
+
+    @Test
+    void aDamagedFileStartsAfresh() throws IOException {
+        try (SeenUrlStore store = new SeenUrlStore(file(), 1000, 0.01)) {
+            store.add("https://example.com/news/a");
+        }
+        byte[] bytes = Files.readAllBytes(file());
+
+        Files.write(file(), Arrays.copyOf(bytes, bytes.length - 8)); // Cut short
+        assertStartsAfresh();
+
+        Files.write(file(), "not a filter".repeat(100).getBytes(StandardCharsets.US_ASCII));
+        assertStartsAfresh();
+
+        Files.write(file(), new byte[10]); // Shorter than the header
+        assertStartsAfresh();
+    }
+
+    private void assertStartsAfresh() throws IOException {
+        try (SeenUrlStore store = new SeenUrlStore(file(), 1000, 0.01)) {
+            assertEquals(0, store.size());
+            assertFalse(store.mightContain("https://example.com/news/a"));
+            store.add("https://example.com/news/b");
+        }
+        try (SeenUrlStore store = new SeenUrlStore(file(), 1000, 0.01)) {
+            assertTrue(store.mightContain("https://example.com/news/b")); // The new filter was written whole
+        }
+    }
+}
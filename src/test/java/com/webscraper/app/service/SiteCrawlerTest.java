@@ -0,0 +1,151 @@
+package com.webscraper.app.service;
+
+import com.webscraper.app.dto.ArticleBatchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(60) // A crawl that never notices it is done fails rather than hangs
+class SiteCrawlerTest {
+
+    // Front page -> /world, /sport -> /world/europe, /world?page=2 -> /section/france
+    private static final List<String> LISTING_PAGES = List.of(
+            "/", "/world", "/sport", "/world/europe", "/world?page=2", "/section/france");
+
+    private TestSite site;
+    private TestSite otherSite;
+    private HttpFetcher fetcher;
+
+    @BeforeEach
+    void startSites() {
+        site = new TestSite();
+        otherSite = new TestSite("localhost");
+        otherSite.page("/politics", listing("Politics", "/news/2024/02/01/elsewhere"));
+        site.page("/", listing("Front page", "/news/2024/01/01/story-one", "/news/2024/01/02/story-two",
+                "/news/2024/01/01/story-one?utm_source=home")
+                + links("/world", "/sport", "/", otherSite.url("/politics")));
+        site.page("/world", listing("World", "/news/2024/01/03/story-three", "/news/2024/01/01/story-one")
+                + links("/world/europe") + "<link rel=\"next\" href=\"/world?page=2\">");
+        site.page("/sport", listing("Sport", "/news/2024/01/04/story-four") + links("/"));
+        site.page("/world/europe", listing("Europe", "/news/2024/01/05/story-five") + links("/section/france"));
+        site.page("/world?page=2", listing("World, page 2", "/news/2024/01/06/story-six"));
+        site.page("/section/france", listing("France", "/news/2024/01/07/story-seven"));
+        for (int i = 1; i <= 7; i++) {
+            site.page(article(i), "<html><head><title>Story " + i + "</title></head><body><article>"
+                    + "<h1>Story " + i + " headline</h1><p>The first paragraph of story " + i
+                    + ", which is long enough, with commas, to be scored as the article body.</p>"
+                    + "<p>A second paragraph, also long enough, so that the body is found by content scoring.</p>"
+                    + "</article></body></html>");
+        }
+        fetcher = new HttpFetcher();
+    }
+
+    @AfterEach
+    void stopSites() {
+        fetcher.close();
+        site.close();
+        otherSite.close();
+    }
+
+    private static String article(int number) {
+        String[] names = {"one", "two", "three", "four", "five", "six", "seven"};
+        return "/news/2024/01/0" + number + "/story-" + names[number - 1];
+    }
+
+    private static String listing(String title, String... articles) {
+        StringBuilder html = new StringBuilder("<html><head><title>").append(title).append("</title></head><body><main>");
+        for (String url : articles) {
+            html.append("<h3><a href=\"").append(url).append("\">A headline for ").append(url).append("</a></h3>");
+        }
+        return html.append("</main>").toString();
+    }
+
+    private static String links(String... urls) {
+        StringBuilder html = new StringBuilder("<nav>");
+        for (String url : urls) {
+            html.append("<a href=\"").append(url).append("\">Section</a>");
+        }
+        return html.append("</nav>").toString();
+    }
+
+    private SiteCrawler crawler() {
+        return new SiteCrawler(new WebScraperService(fetcher, new HostPolitenessScheduler(0, 100, 2)));
+    }
+
+    private ArticleBatchResult crawl(SiteCrawler crawler) {
+        return crawler.crawl(List.of(site.url("/")));
+    }
+
+    private Set<String> requested(List<String> targets) {
+        Set<String> requested = new TreeSet<>();
+        for (String target : targets) {
+            if (site.hits(target) > 0) {
+                requested.add(target);
+            }
+        }
+        return requested;
+    }
+
+    private Set<String> articles(int... numbers) {
+        Set<String> articles = new TreeSet<>();
+        for (int number : numbers) {
+            articles.add(article(number));
+        }
+        return articles;
+    }
+
+    private List<String> articleTargets() {
+        return List.of(article(1), article(2), article(3), article(4), article(5), article(6), article(7));
+    }
+
+    @Test
+    void crawlsEachPageOnceWithinTheDepth() {
+        ArticleBatchResult result = crawl(crawler().maxDepth(2));
+
+        assertEquals(new TreeSet<>(LISTING_PAGES.subList(0, 5)), requested(LISTING_PAGES));
+        assertEquals(articles(1, 2, 3, 4, 5, 6), requested(articleTargets()));
+        for (String target : site.requests()) {
+            assertEquals(1, site.hits(target), target);
+        }
+        assertEquals(6, result.getArticles().size());
+        assertTrue(result.getFailures().isEmpty(), result.getFailures().toString());
+        assertTrue(otherSite.requests().isEmpty(), "left the seed's host");
+    }
+
+    @Test
+    void depthZeroReadsOnlyTheSeed() {
+        ArticleBatchResult result = crawl(crawler().maxDepth(0));
+        assertEquals(Set.of("/"), requested(LISTING_PAGES));
+        assertEquals(articles(1, 2), requested(articleTargets()));
+        assertEquals(2, result.getArticles().size());
+    }
+
+    @Test
+    void stopsAtMaxPages() {
+        crawl(crawler().maxDepth(3).maxPages(2));
+        assertEquals(Set.of("/", "/world"), requested(LISTING_PAGES));
+    }
+
+    @Test
+    void stopsAtMaxArticles() {
+        ArticleBatchResult result = crawl(crawler().maxDepth(3).maxArticles(3));
+        assertEquals(3, result.getArticles().size());
+        assertEquals(3, requested(articleTargets()).size());
+        assertEquals(new TreeSet<>(LISTING_PAGES), requested(LISTING_PAGES));
+    }
+
+    @Test
+    void aFailedSeedEndsTheCrawl() {
+        ArticleBatchResult result = crawler().crawl(List.of(site.url("/missing")));
+        assertTrue(result.getArticles().isEmpty());
+        assertEquals(Set.of(site.url("/missing")), result.getFailures().keySet());
+    }
+}
@@ -0,0 +1,106 @@
+package com.webscraper.app.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StructuredDataExtractorTest {
+
+    static final String META = "<meta property=\"og:title\" content=\"Council approves budget | Example News\">"
+            + "<meta name=\"author\" content=\"Example News Staff\">"
+            + "<meta property=\"article:published_time\" content=\"2024-05-02\">"
+            + "<meta property=\"og:image\" content=\"https://example.com/media/og.jpg\">";
+
+    static final String ARTICLE = "<script type=\"application/ld+json\">{\"@context\":\"https://schema.org\","
+            + "\"@type\":\"NewsArticle\",\"headline\":\"Council approves budget\","
+            + "\"author\":{\"@type\":\"Person\",\"name\":\"By Ann Reporter\"},"
+            + "\"datePublished\":\"2024-05-01T09:00:00Z\",\"image\":\"/media/lead.jpg\"}</script>";
+
+    private final StructuredDataExtractor extractor = new StructuredDataExtractor();
+
+    static Document page(String head, String body) {
+        return Jsoup.parse("<html><head><title>Page title</title>" + head + "</head><body>" + body + "</body></html>",
+                "https://example.com/news/story");
+    }
+
+    @Test
+    void jsonLdTakesPrecedenceOverMetaTags() {
+        for (Document doc : List.of(page(META + ARTICLE, "<p>Text</p>"), page(META, "<p>Text</p>" + ARTICLE))) {
+            StructuredDataExtractor.Metadata metadata = extractor.extract(doc);
+            assertEquals("Council approves budget", metadata.getHeadline());
+            assertEquals("Ann Reporter", metadata.getAuthor());
+            assertEquals("2024-05-01T09:00:00Z", metadata.getDatePublished());
+            assertEquals(List.of("https://example.com/media/lead.jpg", "https://example.com/media/og.jpg"),
+                    metadata.getImageUrls());
+        }
+    }
+
+    @Test
+    void metaTagsFillWhatJsonLdLeavesOut() {
+        String article = "<script type=\"application/ld+json\">{\"@type\":\"Article\",\"headline\":\"Only a headline\"}</script>";
+        StructuredDataExtractor.Metadata metadata = extractor.extract(page(META, article));
+        assertEquals("Only a headline", metadata.getHeadline());
+        assertEquals("Example News Staff", metadata.getAuthor());
+        assertEquals("2024-05-02", metadata.getDatePublished());
+    }
+
+    @Test
+    void findsTheArticleInAGraphOrMainEntity() {
+        String graph = "<script type=\"application/ld+json\">{\"@context\":\"https://schema.org\",\"@graph\":["
+                + "{\"@type\":\"WebSite\",\"name\":\"Example News\"},"
+                + "{\"@type\":\"BreadcrumbList\",\"headline\":\"Not this\"},"
+                + "{\"@type\":[\"NewsArticle\",\"Thing\"],\"headline\":\"From the graph\"}]}</script>";
+        assertEquals("From the graph", extractor.extract(page(graph, "")).getHeadline());
+
+        String mainEntity = "<script type=\"application/ld+json\">{\"@type\":\"WebPage\",\"headline\":\"Not this\","
+                + "\"mainEntity\":{\"@type\":\"BlogPosting\",\"headline\":\"From the main entity\"}}</script>";
+        assertEquals("From the main entity", extractor.extract(page("", mainEntity)).getHeadline());
+
+        String list = "<script type=\"application/ld+json\">[{\"@type\":\"Organization\",\"name\":\"Example\"},"
+                + "{\"@type\":\"ReportageNewsArticle\",\"headline\":\"From the list\"}]</script>";
+        assertEquals("From the list", extractor.extract(page(list, "")).getHeadline());
+    }
+
+    @Test
+    void theFirstArticleWins() {
+        String second = "<script type=\"application/ld+json\">{\"@type\":\"NewsArticle\",\"headline\":\"Related story\","
+                + "\"author\":\"Someone Else\"}</script>";
+        StructuredDataExtractor.Metadata metadata = extractor.extract(page(ARTICLE, second));
+        assertEquals("Council approves budget", metadata.getHeadline());
+        assertEquals("Ann Reporter", metadata.getAuthor());
+    }
+
+    @Test
+    void readsAuthorStringsObjectsAndArrays() {
+        assertEquals("Ann Reporter", author("\"Ann Reporter\""));
+        assertEquals("Ann Reporter", author("{\"@type\":\"Person\",\"name\":\"Ann Reporter\",\"url\":\"https://example.com/ann\"}"));
+        assertEquals("Ann Reporter, Bo Writer", author("[{\"name\":\"Ann Reporter\"},\"Written by: Bo Writer\","
+                + "{\"name\":\"Ann Reporter\"}]"));
+        assertEquals("Ann Reporter", author("[\"https://example.com/people/ann\",{\"name\":\"Ann Reporter\"}]"));
+        assertEquals("Café Desk", author("{\"name\":\"Caf&eacute; Desk\"}"));
+        assertNull(author("[]"));
+    }
+
+    private String author(String json) {
+        String script = "<script type=\"application/ld+json\">{\"@type\":\"NewsArticle\",\"author\":" + json + "}</script>";
+        return extractor.extract(page(script, "")).getAuthor();
+    }
+
+    @Test
+    void readsWrappedScriptsAndMarkupInTheBody() {
+        String script = "<script type=\"application/ld+json\"><!--{\"@type\":\"NewsArticle\","
+                + "\"articleBody\":\"<p>First paragraph.</p><p>Second &amp; last.</p>\"}--></script>";
+        assertEquals("First paragraph. Second & last.", extractor.extract(page(script, "")).getBody());
+    }
+
+    @Test
+    void ignoresNonArticleTypes() {
+        String script = "<script type=\"application/ld+json\">{\"@type\":\"Organization\",\"headline\":\"Not this\"}</script>";
+        assertNull(extractor.extract(page(script, "")).getHeadline());
+    }
+}
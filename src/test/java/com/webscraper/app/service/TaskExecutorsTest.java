@@ -0,0 +1,45 @@
+package com.webscraper.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskExecutorsTest {
+
+    @Test
+    void platformThreadsAreCappedAndTheRestQueue() throws Exception {
+        ExecutorService executor = TaskExecutors.newPlatformExecutor("test", 4);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger mostRunning = new AtomicInteger();
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                tasks.add(executor.submit(() -> {
+                    mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    release.await();
+                    running.decrementAndGet();
+                    return null;
+                }));
+            }
+            assertEquals(4, ((ThreadPoolExecutor) executor).getPoolSize());
+            assertEquals(96, ((ThreadPoolExecutor) executor).getQueue().size());
+            release.countDown();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            assertTrue(mostRunning.get() <= 4, mostRunning + " tasks ran at once");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
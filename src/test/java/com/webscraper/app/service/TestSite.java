@@ -0,0 +1,77 @@
+package com.webscraper.app.service;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A site on the loopback interface serving fixed HTML pages by path and query, and
+ * recording every request it gets. Unknown pages are 404s.
+ */
+final class TestSite implements AutoCloseable {
+
+    private final Map<String, String> pages = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final HttpServer server;
+    private final String host;
+
+    /** @param host the name to give in URLs; "127.0.0.1" and "localhost" are different sites */
+    TestSite(String host) {
+        this.host = host;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/", exchange -> {
+            String target = exchange.getRequestURI().getRawPath()
+                    + (exchange.getRequestURI().getRawQuery() != null ? "?" + exchange.getRequestURI().getRawQuery() : "");
+            requests.add(target);
+            String page = pages.get(target);
+            byte[] body = page == null ? new byte[0] : page.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(page == null ? 404 : 200, page == null ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    TestSite() {
+        this("127.0.0.1");
+    }
+
+    /** Serve html at target, a path with an optional query */
+    TestSite page(String target, String html) {
+        pages.put(target, html);
+        return this;
+    }
+
+    String url(String target) {
+        return "http://" + host + ":" + server.getAddress().getPort() + target;
+    }
+
+    /** Every request so far, as path and query, in the order they came */
+    List<String> requests() {
+        return requests;
+    }
+
+    long hits(String target) {
+        return requests.stream().filter(target::equals).count();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
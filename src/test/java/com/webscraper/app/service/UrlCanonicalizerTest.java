@@ -0,0 +1,53 @@
+package com.webscraper.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UrlCanonicalizerTest {
+
+    @Test
+    void canonicalFormDropsTrackingAndFragments() {
+        assertEquals("https://www.example.com/news/a?id=7",
+                UrlCanonicalizer.canonicalize("HTTPS://WWW.Example.com:443/news/a?utm_source=x&id=7&fbclid=abc#comments"));
+        assertEquals("http://example.com:8080/a/c",
+                UrlCanonicalizer.canonicalize("http://example.com:8080/a/b/../c"));
+        assertEquals("https://example.com/", UrlCanonicalizer.canonicalize("https://example.com"));
+        assertEquals("https://example.com/news/a/", UrlCanonicalizer.canonicalize("https://example.com/news/a/"));
+    }
+
+    @Test
+    void leavesOtherUrlsAlone() {
+        assertEquals("mailto:someone@example.com", UrlCanonicalizer.canonicalize("mailto:someone@example.com"));
+        assertEquals("/relative/path", UrlCanonicalizer.canonicalize("/relative/path"));
+        assertEquals("https://example.com/bad path", UrlCanonicalizer.canonicalize("https://example.com/bad path"));
+    }
+
+    @Test
+    void variantsOfOneArticleShareAFingerprint() {
+        long fingerprint = UrlCanonicalizer.fingerprint("https://example.com/news/a?b=2&a=1");
+        assertEquals(fingerprint, UrlCanonicalizer.fingerprint("http://example.com/news/a/?a=1&b=2"));
+        assertEquals(fingerprint, UrlCanonicalizer.fingerprint("https://EXAMPLE.com/news/a?a=1&utm_medium=social&b=2#top"));
+        assertNotEquals(fingerprint, UrlCanonicalizer.fingerprint("https://example.com/news/a?a=1&b=3"));
+        assertNotEquals(fingerprint, UrlCanonicalizer.fingerprint("https://example.org/news/a?a=1&b=2"));
+        assertNotEquals(UrlCanonicalizer.fingerprint("https://example.com/News/a"),
+                UrlCanonicalizer.fingerprint("https://example.com/news/a"));
+    }
+
+    @Test
+    void fingerprintSetGrowsAndKeepsEveryEntry() {
+        FingerprintSet set = new FingerprintSet();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(set.add(UrlCanonicalizer.fingerprint("https://example.com/news/" + i)));
+        }
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertFalse(set.add(UrlCanonicalizer.fingerprint("http://example.com/news/42/")));
+        assertTrue(set.contains(UrlCanonicalizer.fingerprint("https://example.com/news/9999")));
+        assertFalse(set.contains(UrlCanonicalizer.fingerprint("https://example.com/news/10000")));
+        assertEquals(10_001, set.size());
+    }
+}
@@ -0,0 +1,93 @@
+package com.webscraper.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UrlClassifierTest {
+
+    private static final String BASE = "https://www.example.com/";
+
+    private final UrlClassifier classifier = new UrlClassifier();
+
+    @Test
+    void acceptsArticleLinksOnTheSameSite() {
+        assertTrue(classifier.isArticleLink("https://www.example.com/news/markets-rally", BASE));
+        assertTrue(classifier.isArticleLink("https://www.example.com/2024/05/17/x", BASE));
+        assertTrue(classifier.isArticleLink("https://www.example.com/2024/5/y", BASE));
+        assertTrue(classifier.isArticleLink("https://www.example.com/a-long-enough-slug", BASE));
+        assertTrue(classifier.isArticleLink("https://edition.www.example.com/World/Story", BASE));
+        assertTrue(classifier.isArticleLink("https://www.example.com/STORY/x", BASE));
+    }
+
+    @Test
+    void rejectsOtherSitesAndNonArticlePages() {
+        assertFalse(classifier.isArticleLink("https://other.com/news/markets-rally", BASE));
+        assertFalse(classifier.isArticleLink("https://example.com/news/markets-rally", BASE));
+        assertFalse(classifier.isArticleLink("/news/relative", BASE));
+        assertFalse(classifier.isArticleLink("https://www.example.com/About-Us", BASE));
+        assertFalse(classifier.isArticleLink("https://www.example.com/news/tag/politics", BASE));
+        assertFalse(classifier.isArticleLink("https://www.example.com/news/story#comments", BASE));
+        assertFalse(classifier.isArticleLink("https://www.example.com/news/report.PDF", BASE));
+        assertFalse(classifier.isArticleLink("https://www.example.com/short", BASE));
+        assertFalse(classifier.isArticleLink("https://www.example.com/news/" + "x".repeat(500), BASE));
+        assertFalse(classifier.isArticleLink("https://www.example.com/bad path", BASE));
+        assertFalse(classifier.isArticleLink(null, BASE));
+    }
+
+    @Test
+    void baseUrlChangesAreHonoured() {
+        assertTrue(classifier.isArticleLink("https://a.org/news/one", "https://a.org/"));
+        assertFalse(classifier.isArticleLink("https://a.org/news/one", "https://b.org/"));
+        assertTrue(classifier.isArticleLink("https://b.org/news/one", "https://b.org/"));
+    }
+
+    @Test
+    void classifiesImageUrls() {
+        assertTrue(classifier.isContentImageUrl("https://cdn.example.com/2024/photo.JPG?w=800"));
+        assertTrue(classifier.isContentImageUrl("https://cdn.example.com/img/photo.webp"));
+        assertFalse(classifier.isContentImageUrl("https://cdn.example.com/img/site-Logo.png"));
+        assertFalse(classifier.isContentImageUrl("https://cdn.example.com/img/photo"));
+        assertFalse(classifier.isContentImageUrl("https://cdn.example.com/base64/photo.png"));
+        assertFalse(classifier.isContentImageUrl("https://cdn.example.com/a b.png"));
+        assertFalse(classifier.isContentImageUrl(""));
+    }
+
+    @Test
+    void judgesImagesByTheirContext() {
+        assertTrue(classifier.isNewsImage("Protesters gather downtown", "", ""));
+        assertTrue(classifier.isNewsImage("", "wp-image", "article-body"));
+        assertFalse(classifier.isNewsImage("Company Logo and name", "", ""));
+        assertFalse(classifier.isNewsImage("", "story-img", "Sidebar"));
+        assertFalse(classifier.isNewsImage("short", "img", "figure"));
+    }
+
+    @Test
+    void recognizesListingPagesToCrawl() {
+        assertTrue(classifier.isListingLink("https://www.example.com/world", BASE));
+        assertTrue(classifier.isListingLink("https://www.example.com/sport/football/", BASE));
+        assertTrue(classifier.isListingLink("https://www.example.com/middle-east", BASE));
+        assertTrue(classifier.isListingLink("https://www.example.com/tag/elections", BASE));
+        assertTrue(classifier.isListingLink("https://www.example.com/news?page=2", BASE));
+        assertFalse(classifier.isListingLink("https://www.example.com/news/2024/05/01/a-long-story", BASE));
+        assertFalse(classifier.isListingLink("https://www.example.com/world/europe-election-results-in-full", BASE));
+        assertFalse(classifier.isListingLink("https://www.example.com/about", BASE));
+        assertFalse(classifier.isListingLink("https://www.example.com/search?q=x", BASE));
+        assertFalse(classifier.isListingLink("https://www.other.com/world", BASE));
+        assertTrue(classifier.isSameSite("https://m.www.example.com/news?offset=20", BASE));
+        assertFalse(classifier.isSameSite("/relative", BASE));
+    }
+
+    @Test
+    void customPatternsReplaceTheDefaults() {
+        UrlClassifier custom = new UrlClassifier(List.of("/promo"), List.of("/p/"), List.of("thumb"), List.of("ad"));
+        assertTrue(custom.isArticleLink("https://www.example.com/p/1", BASE));
+        assertTrue(custom.isArticleLink("https://www.example.com/about/team", BASE));
+        assertFalse(custom.isArticleLink("https://www.example.com/promo/spring-sale", BASE));
+        assertFalse(custom.isContentImageUrl("https://cdn.example.com/thumb/photo.png"));
+        assertFalse(custom.isNewsImage("Read this advert now", "", ""));
+    }
+}
@@ -0,0 +1,85 @@
+package com.webscraper.app.service;
+
+import com.webscraper.app.dto.LinkItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class WebScraperServiceTest {
+
+    private static final String FRONT_PAGE = "<html><head><title>Example News</title></head><body>"
+            + "<header><nav><a href=\"/news/2024/01/01/nav-story\">In the nav</a></nav></header>"
+            + "<main><div class=\"card\"><a href=\"/news/2024/01/02/story-one\"><h3>Story one headline</h3></a></div>"
+            + "<div class=\"card\"><a href=\"/news/2024/01/03/story-two\"><span class=\"kicker\">Live</span> "
+            + "<span>Story two headline</span><img src=\"/img/two.jpg\" alt=\"\"></a></div>"
+            + "<div class=\"card\"><a href=\"/news/2024/01/04/story-three\"><div><p><b>Story three</b> headline</p></div></a>"
+            + "<p>A teaser below the link, long enough to be read as text.</p></div>"
+            + "<a href=\"/news/2024/01/05/story-four\">Story four headline</a></main>"
+            + "<footer><a href=\"/news/2024/01/06/footer-story\">In the footer</a></footer></body></html>";
+
+    private TestSite site;
+    private HttpFetcher fetcher;
+
+    @BeforeEach
+    void startSite() {
+        site = new TestSite();
+        fetcher = new HttpFetcher();
+    }
+
+    @AfterEach
+    void stopSite() {
+        fetcher.close();
+        site.close();
+    }
+
+    private WebScraperService service() {
+        return new WebScraperService(fetcher, new HostPolitenessScheduler(0, 100, 2));
+    }
+
+    private static List<String> titles(List<LinkItem> links) {
+        return links.stream().map(LinkItem::getTitle).collect(Collectors.toList());
+    }
+
+    @Test
+    void streamingKeepsTheTextOfNestedAnchorMarkup() throws IOException {
+        site.page("/", FRONT_PAGE);
+        List<LinkItem> links = service().extractLinks(site.url("/"), LinkDiscoveryMode.STREAMING);
+        assertEquals(List.of("Story one headline", "Live Story two headline", "Story three headline",
+                "Story four headline"), titles(links));
+        assertEquals(site.url("/news/2024/01/02/story-one"), links.get(0).getUrl());
+    }
+
+    @Test
+    void skipAnalyzedFillsTheBudgetWithNewLinks(@TempDir Path directory) throws IOException {
+        site.page("/", FRONT_PAGE);
+        for (LinkDiscoveryMode mode : List.of(LinkDiscoveryMode.PAGE, LinkDiscoveryMode.STREAMING)) {
+            try (SeenUrlStore seen = new SeenUrlStore(directory.resolve(mode.name() + ".bloom"), 1000, 0.001)) {
+                WebScraperService service = new WebScraperService(fetcher, new HostPolitenessScheduler(0, 100, 2),
+                        new DocumentCache(), seen);
+                List<String> first = urls(service.extractLinks(site.url("/"), mode, 2, true));
+                assertEquals(2, first.size(), mode.toString());
+                first.forEach(seen::add);
+
+                List<String> next = urls(service.extractLinks(site.url("/"), mode, 2, true));
+                assertEquals(2, next.size(), mode.toString());
+                for (String url : next) {
+                    assertFalse(first.contains(url), mode + " " + url);
+                }
+                assertEquals(first, urls(service.extractLinks(site.url("/"), mode, 2, false)), mode.toString());
+            }
+        }
+    }
+
+    private static List<String> urls(List<LinkItem> links) {
+        return links.stream().map(LinkItem::getUrl).collect(Collectors.toList());
+    }
+}